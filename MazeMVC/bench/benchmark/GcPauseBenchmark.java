@@ -0,0 +1,113 @@
+package benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import model.Algorithm;
+import model.DirectGrid;
+import model.Grid;
+import model.MazeModel;
+import model.PackedGrid;
+import model.SolutionPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pauses of the garbage collector while a 10,000 by 10,000 maze is held, as a
+ * long-running generator service would hold it, kept as the old
+ * {@code int[][]} of the model, in a {@link PackedGrid} and off the heap in a
+ * {@link DirectGrid}. {@code fullGc} times a full collection; {@code churn}
+ * makes and solves small mazes, whose garbage is collected around the large
+ * one. The number and total time of the collections in each iteration are
+ * printed after it.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="GcPauseBenchmark -prof gc"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=256m"})
+public class GcPauseBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Param({"ARRAY", "PACKED", "DIRECT"})
+    public String backend;
+
+    private int[][] cells;          // the old model: one int of directions per cell
+    private Grid grid;
+    private final MazeModel small = new MazeModel();
+    private long collections;
+    private long collectionMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Grid maze = "DIRECT".equals(backend) ? new DirectGrid(SIZE, SIZE)
+                : new PackedGrid(SIZE, SIZE);
+        Algorithm.ELLER.newGenerator(42L).generate(maze);
+        if ("ARRAY".equals(backend)) {
+            cells = new int[SIZE][SIZE];
+            for (int x = 0; x < SIZE; x++) {
+                for (int y = 0; y < SIZE; y++) {
+                    cells[x][y] = maze.getPassages(x, y);
+                }
+            }
+        } else {
+            grid = maze;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        collections = -count();
+        collectionMillis = -millis();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounts() {
+        collections += count();
+        collectionMillis += millis();
+        System.out.printf("%n%s: %d collections, %d ms%n", backend, collections, collectionMillis);
+    }
+
+    private static long count() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long millis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    @Benchmark
+    public void fullGc() {
+        System.gc();
+    }
+
+    @Benchmark
+    public SolutionPath churn() {
+        small.newMaze(200, 200, Algorithm.BACKTRACKER);
+        return small.getSolution();
+    }
+}
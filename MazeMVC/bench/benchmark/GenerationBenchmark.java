@@ -0,0 +1,96 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.Algorithm;
+import model.MazeGenerator;
+import model.PackedGrid;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of maze generation, in cells carved per second, for each of the
+ * generation algorithms and for square mazes of several sizes. The larger size
+ * is well past the depth at which the old recursive generator overflowed the
+ * thread stack.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="GenerationBenchmark"</pre>
+ * <p>
+ * or, for a single algorithm and size: </p>
+ * <pre>ant bench -Dbench.args="GenerationBenchmark -p algorithm=WILSON -p size=1000"</pre>
+ * <p>
+ * Mazes of 10,000 by 10,000 take seconds each, so that size is left out by
+ * default; give it when needed, preferably for a few algorithms at a time: </p>
+ * <pre>ant bench -Dbench.args="GenerationBenchmark -p algorithm=ELLER,SIDEWINDER -p size=10000"</pre>
+ * <p>
+ * With {@code -prof gc}, {@code generate} shows the bytes of the arrays made for
+ * each new maze, while {@code generateReused}, which carves into the same grid
+ * with the same generator every time, shows that nothing at all is allocated
+ * per cell once the working arrays exist. </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class GenerationBenchmark {
+
+    @Param({"BACKTRACKER", "KRUSKAL", "PRIM", "WILSON", "ELLER",
+        "HUNT_AND_KILL", "BINARY_TREE", "SIDEWINDER"})
+    public Algorithm algorithm;
+
+    @Param({"25", "1000"})
+    public int size;
+
+    private MazeGenerator generator;
+    private PackedGrid reused;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generator = algorithm.newGenerator(42L);
+        reused = new PackedGrid(size, size);
+    }
+
+    /**
+     * Counts the cells generated, so that JMH reports cells per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Cells {
+
+        public long cells;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cells = 0;
+        }
+    }
+
+    @Benchmark
+    public PackedGrid generate(Cells counter) {
+        PackedGrid maze = new PackedGrid(size, size);
+        generator.generate(maze);
+        counter.cells += (long) size * size;
+        return maze;
+    }
+
+    @Benchmark
+    public PackedGrid generateReused(Cells counter) {
+        reused.clear();
+        generator.generate(reused);
+        counter.cells += (long) size * size;
+        return reused;
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.AStarSolver;
+import model.Algorithm;
+import model.BidirectionalSolver;
+import model.BreadthFirstSolver;
+import model.MazeSolver;
+import model.PackedGrid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to solve large square mazes, from the top left cell to the bottom right,
+ * with single ended and bidirectional breadth first search and with A*. The
+ * number of cells each solver expands is printed when the maze is set up.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="LargeSolverBenchmark"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LargeSolverBenchmark {
+
+    @Param({"BACKTRACKER", "KRUSKAL", "WILSON"})
+    public Algorithm algorithm;
+
+    @Param({"1000", "5000"})
+    public int size;
+
+    private PackedGrid grid;
+    private final BreadthFirstSolver bfs = new BreadthFirstSolver();
+    private final BidirectionalSolver bidirectional = new BidirectionalSolver();
+    private final AStarSolver astar = new AStarSolver();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        grid = new PackedGrid(size, size);
+        algorithm.newGenerator(42L).generate(grid);
+        System.out.printf("%n%s %d x %d, cells expanded: bfs %d, bidirectional %d, astar %d%n",
+                algorithm, size, size, expanded(bfs), expanded(bidirectional), expanded(astar));
+    }
+
+    private int expanded(MazeSolver solver) {
+        solver.solve(grid, 0, size * size - 1);
+        return solver.getNodesExpanded();
+    }
+
+    @Benchmark
+    public int[] bfs() {
+        return bfs.solve(grid, 0, size * size - 1);
+    }
+
+    @Benchmark
+    public int[] bidirectional() {
+        return bidirectional.solve(grid, 0, size * size - 1);
+    }
+
+    @Benchmark
+    public int[] astar() {
+        return astar.solve(grid, 0, size * size - 1);
+    }
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import java.util.ArrayList;
+import model.Grid;
+import model.SolutionPath;
+
+/**
+ * The text drawing formerly in {@code MazeModel}, kept as a baseline for the
+ * benchmarks. It builds the lines of the blank maze as {@code String}s, halves
+ * them into a {@code char[][]} to draw the solution, and expands them back into
+ * {@code String}s.
+ */
+class LegacyRenderer {
+
+    /**
+     * The lines of the maze, without the solution.
+     */
+    static String[] blankLines(Grid maze) {
+        final int cols = maze.getCols();
+        final int rows = maze.getRows();
+        ArrayList<String> mazeStrings = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            // draw the north edge
+            for (int j = 0; j < cols; j++) {
+                if (j == 0 && i ==0) {
+                    sb.append("+ * ");
+                }
+                else sb.append(i == 0 || !maze.isOpenSouth(j, i - 1) ? "+---" : "+   ");
+            }
+            sb.append("+");
+            mazeStrings.add(sb.toString());
+            sb.setLength(0);
+            // draw the west edge
+            for (int j = 0; j < cols; j++) {
+                sb.append(j == 0 || !maze.isOpenEast(j - 1, i) ? "|   " : "    ");
+            }
+            sb.append("|");
+            mazeStrings.add(sb.toString());
+            sb.setLength(0);
+        }
+        // draw the bottom line
+        for (int j = 0; j < cols - 1; j++) {
+            sb.append("+---");
+        }
+        sb.append("+   +");
+        mazeStrings.add(sb.toString());
+        sb.setLength(0);
+        return mazeStrings.toArray(new String[mazeStrings.size()]);
+    }
+
+    /**
+     * The lines of the maze, with the solution drawn in.
+     */
+    static String[] solvedLines(Grid maze, SolutionPath path) {
+        char[][] display = halveMaze(blankLines(maze));
+        for (int i = 0; i < path.size(); i++) {
+            int x = 2 * path.getX(i) + 1;
+            int y = 2 * path.getY(i) + 1;
+            display[y][x] = '*';
+            int gapX = x;
+            int gapY = y + 1;
+            if (i + 1 < path.size()) {
+                gapX = (x + 2 * path.getX(i + 1) + 1) / 2;
+                gapY = (y + 2 * path.getY(i + 1) + 1) / 2;
+            }
+            display[gapY][gapX] = '*';
+        }
+        return expandMaze(display);
+    }
+
+    private static char[][] halveMaze(String[] lines) {
+        final int width = (lines[0].length() + 1) / 2;
+        char[][] c = new char[lines.length][width];
+        for (int i = 0; i < lines.length; i++) {
+            for (int j = 0; j < width; j++) {
+                c[i][j] = lines[i].charAt(j * 2);
+            }
+        }
+        return c;
+    }
+
+    private static String[] expandMaze(char[][] maze) {
+        char[] tmp = new char[3];
+        String[] lines = new String[maze.length];
+        for (int i = 0; i < maze.length; i++) {
+            StringBuilder sb = new StringBuilder(maze[i].length * 2);
+            for (int j = 0; j < maze[i].length; j++) {
+                if (j % 2 == 0) {
+                    sb.append(maze[i][j]);
+                } else {
+                    tmp[0] = tmp[1] = tmp[2] = maze[i][j];
+                    if (tmp[1] == '*') {
+                        tmp[0] = tmp[2] = ' ';
+                    }
+                    sb.append(tmp);
+                }
+            }
+            lines[i] = sb.toString();
+        }
+        return lines;
+    }
+}
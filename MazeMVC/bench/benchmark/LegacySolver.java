@@ -0,0 +1,101 @@
+package benchmark;
+
+import java.awt.Point;
+import java.util.LinkedList;
+
+/**
+ * The solver formerly in {@code MazeModel}, kept as a baseline for the
+ * benchmarks. It halves the display lines of a maze into a {@code char[][]} and
+ * searches it recursively, one call per step, drawing the solution as it
+ * returns and recording a {@code Point} for each step. Mazes with long paths
+ * overflow the stack.
+ */
+class LegacySolver {
+
+    private static final int N = 0;
+    private static final int E = 1;
+    private static final int S = 2;
+    private static final int W = 3;
+
+    private final LinkedList<Point> solution = new LinkedList<>();
+
+    /**
+     * Solve the maze shown by the given lines.
+     *
+     * @param lines	the display lines of the blank maze
+     * @return	the points of the solution
+     */
+    LinkedList<Point> solve(String[] lines) {
+        solution.clear();
+        char[][] maze = halveMaze(lines);
+        solveRecursively(maze, maze[0].length - 2, maze.length - 2, S);
+        return solution;
+    }
+
+    private static char[][] halveMaze(String[] lines) {
+        final int width = (lines[0].length() + 1) / 2;
+        char[][] c = new char[lines.length][width];
+        for (int i = 0; i < lines.length; i++) {
+            for (int j = 0; j < width; j++) {
+                c[i][j] = lines[i].charAt(j * 2);
+            }
+        }
+        return c;
+    }
+
+    private boolean solveRecursively(char[][] maze, int x, int y, int d) {
+        boolean solved = false;
+        for (int direction = N; direction <= W; direction++) {
+            if (solved)  break;
+            if (direction != d) {
+                switch (direction) {
+                    case N:
+                        if (maze[y - 1][x] == ' ') {
+                            solved = solveRecursively(maze, x, y - 2, S);
+                        }
+                        break;
+                    case E:
+                        if (maze[y][x + 1] == ' ') {
+                            solved = solveRecursively(maze, x + 2, y, W);
+                        }
+                        break;
+                    case S:
+                        if (maze[y + 1][x] == ' ') {
+                            solved = solveRecursively(maze, x, y + 2, N);
+                        }
+                        break;
+                    case W:
+                        if (maze[y][x - 1] == ' ') {
+                            solved = solveRecursively(maze, x - 2, y, E);
+                        }
+                        break;
+                }
+            }
+        }
+        if (x == 1 && y == 1) {
+            solved = true;
+        }
+        if (solved) {
+            maze[y][x] = '*';
+            switch (d) {
+                case N:
+                    maze[y - 1][x] = '*';
+                    solution.addLast(new Point(y - 1, x));
+                    break;
+                case E:
+                    maze[y][x + 1] = '*';
+                    solution.addLast(new Point(y, x + 1));
+                    break;
+                case S:
+                    maze[y + 1][x] = '*';
+                    solution.addLast(new Point(y + 1, x));
+                    break;
+                case W:
+                    maze[y][x - 1] = '*';
+                    solution.addLast(new Point(y, x - 1));
+                    break;
+            }
+        }
+        return solved;
+    }
+}
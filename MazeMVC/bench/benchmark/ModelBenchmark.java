@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.Algorithm;
+import model.MazeModel;
+import model.SolutionPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time for {@link MazeModel#newMaze} and what a caller asks of it afterward:
+ * the maze alone, solved, and solved and drawn as the lines the window once
+ * showed. {@code legacy} does the same work as the old model did for each new
+ * maze, drawing the blank lines as {@code String}s and solving them
+ * recursively, as a baseline.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="ModelBenchmark -prof gc"</pre>
+ * <p>
+ * The old solver overflows the stack on the long paths of larger mazes, so for
+ * those run only the model: </p>
+ * <pre>ant bench -Dbench.args="ModelBenchmark.newMaze -p size=1000"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ModelBenchmark {
+
+    @Param({"25", "100"})
+    public int size;
+
+    private final MazeModel model = new MazeModel();
+    private final LegacySolver legacySolver = new LegacySolver();
+    private long seed;
+
+    @Benchmark
+    public MazeModel newMaze() {
+        model.newMaze(size, size, Algorithm.BACKTRACKER, seed++);
+        return model;
+    }
+
+    @Benchmark
+    public SolutionPath newMazeSolved() {
+        model.newMaze(size, size, Algorithm.BACKTRACKER, seed++);
+        return model.getSolution();
+    }
+
+    @Benchmark
+    public void newMazeDrawn(Blackhole bh) {
+        model.newMaze(size, size, Algorithm.BACKTRACKER, seed++);
+        bh.consume(model.getBlankMazeLines());
+        bh.consume(model.getSolvedMazeLines());
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        model.newMaze(size, size, Algorithm.BACKTRACKER, seed++);
+        String[] lines = LegacyRenderer.blankLines(model.getGrid());
+        bh.consume(lines);
+        bh.consume(legacySolver.solve(lines));
+    }
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import model.Algorithm;
+import model.Grid;
+import model.MazeModel;
+import model.MazeRenderer;
+import model.SolutionPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to draw a square maze as text, with its solution, by the old pipeline of
+ * {@code String}s (build, halve, draw, expand) and by {@link MazeRenderer},
+ * into a new array, into one kept from the last call, and streamed to a
+ * {@code Writer} that discards it.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="RenderBenchmark -prof gc"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RenderBenchmark {
+
+    @Param({"25", "1000"})
+    public int size;
+
+    private Grid grid;
+    private SolutionPath solution;
+    private char[] text;
+    private final Writer sink = new Writer() {
+        @Override
+        public void write(char[] chars, int offset, int count) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeModel model = new MazeModel();
+        model.newMaze(size, size, Algorithm.KRUSKAL, 42L);
+        grid = model.getGrid();
+        solution = model.getSolution();
+        text = new char[MazeRenderer.length(grid)];
+    }
+
+    @Benchmark
+    public String[] legacy() {
+        return LegacyRenderer.solvedLines(grid, solution);
+    }
+
+    @Benchmark
+    public char[] renderer() {
+        return MazeRenderer.render(grid, solution);
+    }
+
+    @Benchmark
+    public char[] rendererReused() {
+        MazeRenderer.render(grid, solution, text);
+        return text;
+    }
+
+    @Benchmark
+    public void streamed() throws IOException {
+        MazeRenderer.render(grid, solution, sink);
+    }
+}
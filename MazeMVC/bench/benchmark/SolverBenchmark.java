@@ -0,0 +1,78 @@
+package benchmark;
+
+import java.awt.Point;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import model.AStarSolver;
+import model.Algorithm;
+import model.BreadthFirstSolver;
+import model.Grid;
+import model.MazeModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to solve a square maze, from the entrance at the top left to the exit
+ * at the bottom right, with breadth first search, A*, and the old recursive
+ * solver on the halved display lines.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="SolverBenchmark"</pre>
+ * <p>
+ * The old solver overflows the stack on the long paths of larger mazes, so for
+ * those run only the new solvers: </p>
+ * <pre>ant bench -Dbench.args="SolverBenchmark.(bfs|astar) -p size=1000"</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SolverBenchmark {
+
+    @Param({"BACKTRACKER", "KRUSKAL"})
+    public Algorithm algorithm;
+
+    @Param({"25", "100"})
+    public int size;
+
+    private Grid grid;
+    private String[] lines;
+    private final BreadthFirstSolver bfs = new BreadthFirstSolver();
+    private final AStarSolver astar = new AStarSolver();
+    private final LegacySolver legacy = new LegacySolver();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MazeModel model = new MazeModel();
+        model.newMaze(size, size, algorithm, 42L);
+        grid = model.getGrid();
+        lines = model.getBlankMazeLines();
+    }
+
+    @Benchmark
+    public int[] bfs() {
+        return bfs.solve(grid, 0, size * size - 1);
+    }
+
+    @Benchmark
+    public int[] astar() {
+        return astar.solve(grid, 0, size * size - 1);
+    }
+
+    @Benchmark
+    public LinkedList<Point> legacy() {
+        return legacy.solve(lines);
+    }
+}
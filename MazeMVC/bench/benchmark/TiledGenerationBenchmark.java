@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import model.Algorithm;
+import model.PackedGrid;
+import model.TiledGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to carve a large maze in tiles, with pools of different numbers of
+ * threads, to show how generation scales with the number of cores. Results
+ * for more threads than the machine has cores show only the overhead.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="TiledGenerationBenchmark"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TiledGenerationBenchmark {
+
+    @Param({"BACKTRACKER", "KRUSKAL"})
+    public Algorithm algorithm;
+
+    @Param({"10000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public PackedGrid tiled() {
+        PackedGrid maze = new PackedGrid(size, size);
+        new TiledGenerator(algorithm, new SplittableRandom(42),
+                TiledGenerator.DEFAULT_TILE_SIZE, pool).generate(maze);
+        return maze;
+    }
+
+    @Benchmark
+    public PackedGrid untiled() {
+        PackedGrid maze = new PackedGrid(size, size);
+        algorithm.newGenerator(42L).generate(maze);
+        return maze;
+    }
+}
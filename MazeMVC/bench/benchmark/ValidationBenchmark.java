@@ -0,0 +1,274 @@
+package benchmark;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import validation.Validation;
+import validation.ValidationException;
+
+/**
+ * Throughput of each of the {@code validate...} methods of {@link Validation},
+ * in calls per second, over a small corpus of realistic entries: all valid,
+ * or all invalid, so that the cost of rejecting an entry, exception included,
+ * is seen apart. Each call takes the next entry of the corpus in turn. Before
+ * a benchmark runs, its valid entries are checked to be accepted and, if the
+ * invalid ones are to be used, those to be rejected.
+ * <p>
+ * Execute: </p>
+ * <pre>ant bench -Dbench.args="ValidationBenchmark -prof gc"</pre>
+ * <p>
+ * or, for one method: </p>
+ * <pre>ant bench -Dbench.args="ValidationBenchmark.email -prof gc"</pre>
+ * <p>
+ * With {@code -prof gc}, {@code gc.alloc.rate.norm} is the bytes allocated by
+ * each call. {@code isbn} reads the ISBN ranges from {@code bench/isbn-ranges.xml},
+ * an excerpt enough for its corpus, unless the system property
+ * {@code validation.isbn.ranges} is set or the ranges are among the classes
+ * (see {@code ant isbn-ranges}). </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LAST_DATE = LocalDate.of(2100, 1, 1);
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("1000000");
+
+    /**
+     * The excerpt of the ISBN ranges, relative to the project directory.
+     */
+    private static final String ISBN_RANGES = "bench/isbn-ranges.xml";
+
+    /**
+     * The valid and invalid entries for each benchmark.
+     */
+    private static final Map<String, String[][]> CORPORA = new HashMap<>();
+
+    static {
+        CORPORA.put("integer", new String[][]{
+            {"25", "1", "1,000", "100000", " 42 "},
+            {"abc", "0", "-5", "12x", "", "99999999999", "100001"}});
+        CORPORA.put("decimal", new String[][]{
+            {"3.14159", "-2.5e3", "1,234.5", "0.001"},
+            {"pi", "1.2.3", "--4", "", "1e12"}});
+        CORPORA.put("percentage", new String[][]{
+            {"50%", "12.5 %", "0.75", "100%"},
+            {"150%", "abc", "%", "-3%"}});
+        CORPORA.put("currency", new String[][]{
+            {"$1,234.56", "12.5", "$0.99", "1000"},
+            {"$12.345.6", "abc", "$-", "-$5", "$2,000,000"}});
+        CORPORA.put("date", new String[][]{
+            {"3/14/2018", "2018-03-14", "14.3.2018", "March 14, 2018", "14 Mar 2018"},
+            {"2018-13-40", "yesterday", "31/31/31", "1/1/1800"}});
+        CORPORA.put("email", new String[][]{
+            {"alice@example.com", "bob.smith+tag@mail.example.co.uk",
+                "\"john doe\"@example.org", "Carol <carol@example.net>",
+                "dave(comment)@example.com"},
+            {"alice@", "@example.com", "a..b@example.com", "no-at-sign.example.com",
+                "x@y@z.com", "alice@example", "a@ex_ample.com"}});
+        CORPORA.put("emailImport", new String[][]{
+            {"alice@example.com", "bob.smith@mail.example.co.uk",
+                "carol_jones+news@example.org", "d.o'brien@example.ie",
+                "support-team@sub.example-host.com", "user1234@example.net"},
+            {"alice@example", "bob@@example.com", "carol.@example.org",
+                "dave@example..com", "eve@-example.com", "frank.example.com"}});
+        CORPORA.put("phone", new String[][]{
+            {"(555) 234-5678", "555-234-5678", "+1 555 234 5678"},
+            {"+44 20 7946 0958", "12345", "abc-defg", "555-1234-56789012"}});
+        CORPORA.put("ssn", new String[][]{
+            {"123-45-6789", "123 45 6789", "123456789"},
+            {"12-345-678", "abc", "123-45-678"}});
+        CORPORA.put("creditCard", new String[][]{
+            {"4111 1111 1111 1111", "5500-0000-0000-0004", "378282246310005"},
+            {"4111 1111 1111 1112", "1234", "abcd efgh"}});
+        CORPORA.put("name", new String[][]{
+            {"John Smith", "Mary-Jane O'Neil", "J. R. R. Tolkien", "de la Cruz, Maria"},
+            {"", "12345", "   "}});
+        CORPORA.put("isbn", new String[][]{
+            {"978-0-306-40615-7", "0-306-40615-2", "9780306406157", "0 19 852663 6"},
+            {"978-0-306-40615-8", "12345", "0-306-40615-X", "979-0-000-00000-0"}});
+    }
+
+    @Param({"VALID", "INVALID"})
+    public String corpus;
+
+    private String[] entries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws ReflectiveOperationException {
+        String benchmark = params.getBenchmark();
+        String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        String[][] corpora = CORPORA.get(method);
+        if (System.getProperty(Validation.ISBN_RANGES_PROPERTY) == null
+                && Validation.class.getResource("RangeMessage.xml") == null) {
+            System.setProperty(Validation.ISBN_RANGES_PROPERTY, ISBN_RANGES);
+        }
+        // the valid entries are checked in either case, so that the invalid
+        // ones are known to be rejected for what they are, not for want of
+        // anything the method needs
+        check(ValidationBenchmark.class.getMethod(method), corpora[0], true);
+        if ("INVALID".equals(corpus)) {
+            check(ValidationBenchmark.class.getMethod(method), corpora[1], false);
+        }
+        next = 0;
+    }
+
+    /**
+     * Check that a benchmark accepts, or rejects, each of the given entries.
+     */
+    private void check(Method benchmark, String[] corpus, boolean valid)
+            throws ReflectiveOperationException {
+        entries = corpus;
+        next = 0;
+        for (String entry : corpus) {
+            Object result = benchmark.invoke(this);
+            if ((result instanceof ValidationException) == valid) {
+                throw new IllegalStateException(benchmark.getName() + " "
+                        + (valid ? "rejected" : "accepted") + " \"" + entry + "\": " + result);
+            }
+        }
+    }
+
+    /**
+     * The next entry of the corpus, in turn.
+     */
+    private String next() {
+        String entry = entries[next];
+        next = next + 1 == entries.length ? 0 : next + 1;
+        return entry;
+    }
+
+    @Benchmark
+    public Object integer() {
+        try {
+            return Validation.validateInteger(next(), 1, 100_000);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object decimal() {
+        try {
+            return Validation.validateDouble(next(), -1e9, 1e9, 3);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object percentage() {
+        try {
+            return Validation.validatePercentage(next(), 0, 1, 2);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object currency() {
+        try {
+            return Validation.validateCurrency(next(), BigDecimal.ZERO, MAX_AMOUNT, 2);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object date() {
+        try {
+            return Validation.validateDate(next(), FIRST_DATE, LAST_DATE);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object email() {
+        try {
+            return Validation.validateEmail(next());
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    /**
+     * Email addresses as found in a batch import: bare addresses, without
+     * the display names, comments and quoting of {@link #email}.
+     */
+    @Benchmark
+    public Object emailImport() {
+        try {
+            return Validation.validateEmail(next());
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object phone() {
+        try {
+            return Validation.validatePhone(next(), false, Locale.US);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object ssn() {
+        try {
+            return Validation.validateSSN(next());
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object creditCard() {
+        try {
+            return Validation.validateCreditCard(next());
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object name() {
+        try {
+            return Validation.validateName(next());
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object isbn() {
+        try {
+            return Validation.validateISBN(next(), 0);
+        } catch (ValidationException ex) {
+            return ex;
+        }
+    }
+}
@@ -2,24 +2,27 @@ package controller;
 
 import validation.ValidationException;
 import validation.ValidResult;
-import java.awt.Color;
 import java.awt.FileDialog;
-import java.awt.Font;
-import static java.awt.Font.MONOSPACED;
-import static java.awt.Font.PLAIN;
 import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
-import javax.swing.JTextArea;
+import javax.swing.JProgressBar;
 import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.SwingWorker;
 import model.MazeModel;
+import view.MazePanel;
 import view.MazeView;
 import messageDisplay.MessageDisplay;
 import static validation.Validation.validateInteger;
@@ -27,6 +30,12 @@ import static validation.Validation.validateInteger;
 /**
  * Controller for the view of this application. The controller provides all the
  * controls (with needed handlers), transferring information to the model
+ * <p>
+ * New mazes are made and solved, and maze files opened and solved, by a
+ * background task, into a model of their own, so the window stays responsive
+ * while a large maze is made or opened. Only when the task is done does its
+ * model replace the current one and its maze appear. Asking for another maze
+ * before then cancels the task. </p>
  *
  * @author	Nicholas Tzavaras, s02150247
  * @version	Beta, 5/3/2018
@@ -39,9 +48,14 @@ public class MazeController {
     private final MazeView view;
 
     /**
-     * The model of this application.
+     * The model of this application, holding the maze shown.
      */
-    private final MazeModel model;
+    private MazeModel model;
+
+    /**
+     * The task making the next maze, or null if none is being made.
+     */
+    private MazeTask task;
 
     /**
      * Used for validation that maze is present to show or hide solution.
@@ -89,9 +103,14 @@ public class MazeController {
     private JLabel rowsLabel;
 
     /**
-     * Text area used to display the maze as strings.
+     * Panel on which the maze is painted.
+     */
+    private MazePanel mazePanel;
+
+    /**
+     * Shows how far the task making the next maze has got.
      */
-    private JTextArea mazeTextArea;
+    private JProgressBar progressBar;
 
     private JMenuBar menuBar;
 
@@ -107,10 +126,18 @@ public class MazeController {
             menuBar = new JMenuBar();
             JMenu fileMenu = new JMenu("File");
             fileMenu.setMnemonic('F');
+            JMenuItem openAction = new JMenuItem("Open Maze File...");
+            fileMenu.add(openAction);
+            openAction.setMnemonic('o');
+            openAction.addActionListener(this::openActionPerformed);
             JMenuItem saveAction = new JMenuItem("Save");
             fileMenu.add(saveAction);
             saveAction.setMnemonic('s');
             saveAction.addActionListener(this::saveActionPerformed);
+            JMenuItem saveMazeAction = new JMenuItem("Save Maze File...");
+            fileMenu.add(saveMazeAction);
+            saveMazeAction.setMnemonic('m');
+            saveMazeAction.addActionListener(this::saveMazeActionPerformed);
             menuBar.add(fileMenu);
             JMenuItem exitAction = new JMenuItem("Exit");
             fileMenu.add(exitAction);
@@ -118,35 +145,52 @@ public class MazeController {
             exitAction.addActionListener((ActionEvent e) -> {
                 System.exit(0);
             });
+            JMenu viewMenu = new JMenu("View");
+            viewMenu.setMnemonic('V');
+            JMenuItem zoomInAction = new JMenuItem("Zoom In");
+            viewMenu.add(zoomInAction);
+            zoomInAction.setMnemonic('i');
+            zoomInAction.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_EQUALS,
+                    ActionEvent.CTRL_MASK));
+            zoomInAction.addActionListener((ActionEvent e) -> {
+                mazePanel.setCellSize(mazePanel.getCellSize() * 5 / 4 + 1);
+            });
+            JMenuItem zoomOutAction = new JMenuItem("Zoom Out");
+            viewMenu.add(zoomOutAction);
+            zoomOutAction.setMnemonic('o');
+            zoomOutAction.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_MINUS,
+                    ActionEvent.CTRL_MASK));
+            zoomOutAction.addActionListener((ActionEvent e) -> {
+                mazePanel.setCellSize(mazePanel.getCellSize() * 4 / 5);
+            });
+            menuBar.add(viewMenu);
             
         }
 
-        {   //Sets up the Text Area.
-            mazeTextArea = new JTextArea();
-            mazeTextArea.setFont(new Font(MONOSPACED, PLAIN, 11));
-            mazeTextArea.setColumns((model.getMaxMazeSize() * 4) + 1);
-            mazeTextArea.setRows((model.getMaxMazeSize() * 2) + 1);
-            mazeTextArea.setMinimumSize(mazeTextArea.getSize());
-
-            mazeTextArea.setPreferredSize(mazeTextArea.getSize());
-            mazeTextArea.setBackground(Color.white);
-            mazeTextArea.setEditable(false);
+        {   //Sets up the Maze Panel.
+            mazePanel = new MazePanel();
         }
 
         {   //Sets up the Input Fields
-            colsInputField = new JTextField(2);
+            int digits = Integer.toString(model.getMaxMazeSize()).length();
+            colsInputField = new JTextField(digits);
             colsInputField.setEnabled(true);
             colsInputField.setHorizontalAlignment(JTextField.CENTER);
-            rowsInputField = new JTextField(2);
+            rowsInputField = new JTextField(digits);
             rowsInputField.setEnabled(true);
             rowsInputField.setHorizontalAlignment(JTextField.CENTER);
         }
         {   //Sets up the Labels for input fields
-            colsLabel = new JLabel("Columns (1-25):");
+            colsLabel = new JLabel("Columns (1-" + model.getMaxMazeSize() + "):");
             colsLabel.setHorizontalAlignment(JLabel.RIGHT);
-            rowsLabel = new JLabel("   Rows (1-25):");
+            rowsLabel = new JLabel("   Rows (1-" + model.getMaxMazeSize() + "):");
             rowsLabel.setHorizontalAlignment(JLabel.RIGHT);
         }
+        {   //Sets up the Progress Bar.
+            progressBar = new JProgressBar(0, 100);
+            progressBar.setStringPainted(true);
+            progressBar.setString("");
+        }
         {   //Set up the Buttons use for New maze, show and hide solution
             newMazeButton = new JButton("New Maze");
             newMazeButton.addActionListener(this::newMazeButtonActionPerformed);
@@ -162,8 +206,12 @@ public class MazeController {
         return menuBar;
     }
 
-    public JTextArea getMazeTextArea() {
-        return mazeTextArea;
+    public MazePanel getMazePanel() {
+        return mazePanel;
+    }
+
+    public JProgressBar getProgressBar() {
+        return progressBar;
     }
 
     /**
@@ -222,12 +270,12 @@ public class MazeController {
     }
 
     private void newMazeButtonActionPerformed(ActionEvent e) {
-        mazePreviouslyCreated = true;
         /* If the field contain no text, then just ignore the event. */
         if (colsInputField.getText().trim().isEmpty()
                 || rowsInputField.getText().trim().isEmpty()) {
             MessageDisplay.displayMessage("Size Entry Error",
-                    "Please make sure both fields have integer values 1-25.");
+                    "Please make sure both fields have integer values 1-"
+                    + model.getMaxMazeSize() + ".");
             return;
         }
 
@@ -240,20 +288,30 @@ public class MazeController {
                     = validateInteger(rowsInputField.getText(),
                             /* minimum */ 1,
                             /* maximum */ model.getMaxMazeSize());
-            model.newMaze(colsResult.machine,
-                    rowsResult.machine);
-            mazeTextArea.setText(null);
-            String[] lines = model.getBlankMazeLines();
-            StringBuilder sb = new StringBuilder();
-            for (String line : lines) {
-                sb.append(line.concat("\n"));
-            }
-            mazeTextArea.append(sb.toString());
-            sb.setLength(0);
+            start(new MazeTask(colsResult.machine, rowsResult.machine, null));
         } catch (NumberFormatException | ValidationException ex) {
             MessageDisplay.displayMessage("Size Entry Error",
-                    "Please make sure both fields have integer values 1-25.");
+                    "Please make sure both fields have integer values 1-"
+                    + model.getMaxMazeSize() + ".");
+        }
+    }
+
+    /**
+     * Start a task for the next maze, cancelling any task already running.
+     */
+    private void start(MazeTask next) {
+        if (task != null) {
+            task.cancel(true);
         }
+        task = next;
+        task.addPropertyChangeListener(evt -> {
+            if ("progress".equals(evt.getPropertyName())) {
+                progressBar.setValue((Integer) evt.getNewValue());
+            }
+        });
+        progressBar.setValue(0);
+        progressBar.setString(null);
+        task.execute();
     }
 
     private void showSolutionButtonActionPerformed(ActionEvent e) {
@@ -262,11 +320,7 @@ public class MazeController {
                     "Please create a maze first.");
             return;
         }
-        mazeTextArea.setText(null);
-        String[] lines = model.getSolvedMazeLines();
-        for (String line : lines) {
-            mazeTextArea.append(line.concat("\n"));
-        }
+        mazePanel.setSolutionShown(true);
     }
 
     private void hideSolutionButtonActionPerformed(ActionEvent e) {
@@ -275,11 +329,7 @@ public class MazeController {
                     "Please create a maze first.");
             return;
         }
-        mazeTextArea.setText(null);
-        String[] lines = model.getBlankMazeLines();
-        for (String line : lines) {
-            mazeTextArea.append(line.concat("\n"));
-        }
+        mazePanel.setSolutionShown(false);
     }
 
     private void saveActionPerformed(ActionEvent e) {
@@ -291,17 +341,136 @@ public class MazeController {
         
         FileDialog fDialog = new FileDialog(view, "Save", FileDialog.SAVE);
         fDialog.setVisible(true);
+        if (fDialog.getFile() == null) {
+            return;     // cancelled
+        }
         String path = fDialog.getDirectory() + fDialog.getFile();
-        File f = new File(path.concat(".txt"));
-        try {
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(f, true)) // true for append
-            ) {
-                mazeTextArea.write(writer);
-            }
+        if (!path.endsWith(".txt")) {
+            path = path.concat(".txt");
+        }
+        File f = new File(path);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(f, false))) {
+            model.writeMaze(writer, mazePanel.isSolutionShown());
         } catch (IOException ex) {
             MessageDisplay.displayMessage("Saving Error",
                     "Error saving file. Make sure the file name is correct.");
         }
         
     }
+
+    private void saveMazeActionPerformed(ActionEvent e) {
+        if (!mazePreviouslyCreated) {
+            MessageDisplay.displayMessage("Maze Save Error",
+                    "Please create a maze first.");
+            return;
+        }
+
+        FileDialog fDialog = new FileDialog(view, "Save Maze File", FileDialog.SAVE);
+        fDialog.setVisible(true);
+        if (fDialog.getFile() == null) {
+            return;     // cancelled
+        }
+        String path = fDialog.getDirectory() + fDialog.getFile();
+        if (!path.endsWith(".maze")) {
+            path = path.concat(".maze");
+        }
+        try {
+            model.saveMaze(Paths.get(path), true);
+        } catch (IOException ex) {
+            MessageDisplay.displayMessage("Saving Error",
+                    "Error saving file. Make sure the file name is correct.");
+        }
+    }
+
+    private void openActionPerformed(ActionEvent e) {
+        FileDialog fDialog = new FileDialog(view, "Open Maze File", FileDialog.LOAD);
+        fDialog.setVisible(true);
+        if (fDialog.getFile() == null) {
+            return;     // cancelled
+        }
+        start(new MazeTask(0, 0, Paths.get(fDialog.getDirectory(), fDialog.getFile())));
+    }
+
+    /**
+     * Makes, or reads from a file, and solves a maze in the background, in a
+     * model of its own, then shows it. Progress is the share of the passages
+     * of a new maze opened, up to {@code GENERATING} percent, or that
+     * percentage at once when the file has been read, then the share of its
+     * cells examined by the solver, unless the file held the solution. A task
+     * that has been cancelled stops soon after, since the model checks for
+     * interruption as it goes, and its maze is never shown.
+     */
+    private final class MazeTask extends SwingWorker<MazeModel, Void> {
+
+        /**
+         * The percentage of the progress given to making the maze; the rest is
+         * for solving it.
+         */
+        private static final int GENERATING = 70;
+
+        private final int cols;
+        private final int rows;
+        private final Path file;
+
+        /**
+         * Constructor.
+         *
+         * @param cols	the number of columns of a new maze
+         * @param rows	the number of rows of a new maze
+         * @param file	the file from which the maze is read instead, or null
+         *			for a new maze
+         */
+        MazeTask(int cols, int rows, Path file) {
+            this.cols = cols;
+            this.rows = rows;
+            this.file = file;
+        }
+
+        @Override
+        protected MazeModel doInBackground() throws IOException {
+            MazeModel next = new MazeModel();
+            if (file != null) {
+                next.loadMaze(file);
+                setProgress(GENERATING);
+            } else {
+                next.setProgressListener(percent -> setProgress(percent * GENERATING / 100));
+                next.newMaze(cols, rows);
+            }
+            if (isCancelled()) {
+                return null;
+            }
+            next.setProgressListener(percent
+                    -> setProgress(GENERATING + percent * (100 - GENERATING) / 100));
+            next.getSolution();
+            next.setProgressListener(null);
+            return next;
+        }
+
+        @Override
+        protected void done() {
+            if (task != this) {
+                return;         // replaced by the task for a later maze
+            }
+            task = null;
+            progressBar.setString("");
+            if (isCancelled()) {
+                return;
+            }
+            try {
+                model = get();
+            } catch (InterruptedException | ExecutionException ex) {
+                if (file != null) {
+                    MessageDisplay.displayMessage("Opening Error",
+                            "Error opening file: " + (ex.getCause() != null
+                                    ? ex.getCause().getMessage() : ex.getMessage()));
+                } else {
+                    MessageDisplay.displayMessage("Maze Error",
+                            "The maze could not be made.");
+                }
+                return;
+            }
+            mazePreviouslyCreated = true;
+            mazePanel.setMaze(model.getGrid(), model.getSolution());
+        }
+    }
 }
@@ -0,0 +1,264 @@
+package main;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Algorithm;
+import model.MazeModel;
+import validation.ValidResult;
+import validation.ValidationException;
+import static validation.Validation.validateInteger;
+
+/**
+ * Makes, solves and exports many mazes from the command line, without a
+ * window; nothing from AWT or Swing is used. The mazes are shared among a
+ * number of threads, by default one for each processor, each with a
+ * {@link MazeModel} of its own, which may keep its mazes off the heap. Each
+ * maze is written, with its solution drawn in, to a text file of its own, or
+ * not at all if no directory is given. A summary of the time taken is printed
+ * at the end.
+ * <p>
+ * Maze {@code i} is carved from a seed of its own, mixed from the seed of the
+ * batch and {@code i} alone, so the same seed always gives the same mazes,
+ * however many threads make them, and in whatever order. </p>
+ */
+final class BatchGenerator {
+
+    /**
+     * How to use the headless mode.
+     */
+    static final String USAGE
+            = "Usage: java main.Maze --headless --cols N --rows M [--count K]\n"
+            + "           [--seed S] [--algorithm NAME] [--threads T] [--out DIR]\n"
+            + "           [--off-heap]\n"
+            + "  --count      number of mazes to make (default 1)\n"
+            + "  --seed       seed of the batch (default random)\n"
+            + "  --algorithm  backtracker (default), kruskal, prim, wilson, eller,\n"
+            + "               hunt_and_kill, binary_tree or sidewinder\n"
+            + "  --threads    number of threads (default one per processor)\n"
+            + "  --out        directory for the mazes as text (default none)\n"
+            + "  --off-heap   keep the mazes outside the heap";
+
+    /**
+     * The largest number of columns or rows accepted.
+     */
+    private static final int MAX_SIZE = 100_000;
+
+    /**
+     * The step between the inputs of {@link #seedOf} for consecutive mazes:
+     * 2<sup>64</sup> divided by the golden ratio, made odd, so that the
+     * inputs of the mazes of a batch are spread evenly and never repeat.
+     */
+    private static final long SEED_STEP = 0x9e3779b97f4a7c15L;
+
+    private int cols;
+    private int rows;
+    private int count = 1;
+    private long seed = new SplittableRandom().nextLong();
+    private Algorithm algorithm = Algorithm.BACKTRACKER;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Path out;
+    private boolean offHeap;
+
+    /**
+     * Constructor: private, as a batch is made only from the command line.
+     */
+    private BatchGenerator() {}
+
+    /**
+     * Make the batch of mazes described by the command line, reporting on
+     * the given streams.
+     *
+     * @param args	the command line, including {@code --headless}
+     * @param stdout	where the summary is printed
+     * @param stderr	where errors are printed
+     * @return	the status for the process to exit with: 0 if all the mazes
+     *			were made, 1 if they could not be, 2 if the command line is
+     *			wrong
+     */
+    static int run(String[] args, PrintStream stdout, PrintStream stderr) {
+        BatchGenerator batch = new BatchGenerator();
+        try {
+            batch.parse(args);
+        } catch (ValidationException ex) {
+            stderr.println(ex.getMessage());
+            stderr.println(USAGE);
+            return 2;
+        }
+        try {
+            long start = System.nanoTime();
+            batch.generate();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double cells = (double) batch.cols * batch.rows * batch.count;
+            stdout.printf(Locale.ROOT,
+                    "Made %d mazes of %d x %d (%s, seed %d) on %d threads in %.3f s:"
+                    + " %.0f mazes/s, %.3g cells/s%n",
+                    batch.count, batch.cols, batch.rows, batch.algorithm.name(),
+                    batch.seed, batch.threads, seconds,
+                    batch.count / seconds, cells / seconds);
+            return 0;
+        } catch (IOException | RuntimeException ex) {
+            stderr.println("The mazes could not be made: " + ex);
+            return 1;
+        }
+    }
+
+    /**
+     * Read the options from the command line.
+     *
+     * @throws ValidationException if an option is unknown, lacks its value, or
+     *			has a value that is not valid
+     */
+    private void parse(String[] args) throws ValidationException {
+        boolean haveCols = false;
+        boolean haveRows = false;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--headless")) {
+                continue;
+            }
+            if (option.equals("--off-heap")) {
+                offHeap = true;
+                continue;
+            }
+            if (i + 1 == args.length) {
+                throw new ValidationException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--cols":
+                    cols = parseInteger(option, value, 1, MAX_SIZE);
+                    haveCols = true;
+                    break;
+                case "--rows":
+                    rows = parseInteger(option, value, 1, MAX_SIZE);
+                    haveRows = true;
+                    break;
+                case "--count":
+                    count = parseInteger(option, value, 1, Integer.MAX_VALUE);
+                    break;
+                case "--threads":
+                    threads = parseInteger(option, value, 1, 1024);
+                    break;
+                case "--seed":
+                    try {
+                        seed = Long.parseLong(value.trim());
+                    } catch (NumberFormatException ex) {
+                        throw new ValidationException("Invalid seed: " + value, ex);
+                    }
+                    break;
+                case "--algorithm":
+                    try {
+                        algorithm = Algorithm.valueOf(
+                                value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+                    } catch (IllegalArgumentException ex) {
+                        throw new ValidationException("Unknown algorithm: " + value, ex);
+                    }
+                    break;
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                default:
+                    throw new ValidationException("Unknown option: " + option);
+            }
+        }
+        if (!haveCols || !haveRows) {
+            throw new ValidationException("Both --cols and --rows must be given");
+        }
+        threads = Math.min(threads, count);
+    }
+
+    /**
+     * An integer option, within the given limits.
+     */
+    private static int parseInteger(String option, String value, int minimum, int maximum)
+            throws ValidationException {
+        try {
+            ValidResult<Integer> result = validateInteger(value, minimum, maximum);
+            return result.machine;
+        } catch (ValidationException ex) {
+            throw new ValidationException("Invalid value for " + option + ": "
+                    + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Make all the mazes, each thread taking the next maze not yet taken.
+     *
+     * @throws IOException if a maze cannot be written
+     */
+    private void generate() throws IOException {
+        if (out != null) {
+            Files.createDirectories(out);
+        }
+        final int digits = Integer.toString(count - 1).length();
+        final AtomicInteger next = new AtomicInteger();
+        Callable<Void> worker = () -> {
+            MazeModel model = new MazeModel(offHeap);
+            for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                model.newMaze(cols, rows, algorithm, seedOf(i));
+                model.getSolution();
+                if (out != null) {
+                    String name = String.format(Locale.ROOT, "maze-%0" + digits + "d.txt", i);
+                    try (Writer writer = Files.newBufferedWriter(
+                            out.resolve(name), StandardCharsets.US_ASCII)) {
+                        model.writeMaze(writer, true);
+                    }
+                }
+            }
+            return null;
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Void>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(worker);
+            }
+            for (Future<Void> done : pool.invokeAll(workers)) {
+                done.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * The seed of maze {@code index}: {@code seed + index * SEED_STEP} put
+     * through the finalizer of SplitMix64 (Steele, Lea and Flood, "Fast
+     * Splittable Pseudorandom Number Generators", OOPSLA 2014), two rounds of
+     * xor-shift and multiply that turn inputs differing in a few bits into
+     * seeds that look unrelated. Since the mixing is a bijection, distinct
+     * mazes of a batch always get distinct seeds.
+     */
+    private long seedOf(long index) {
+        long z = seed + index * SEED_STEP;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,11 +1,13 @@
 package main;
 
+import java.util.Arrays;
 import view.MazeView;
 
 /**
  * Main class with the {@code main} method extracted from the MazeView
  * class. This ensures the the {@code main} method does nothing more than 
- * start the application. All classes used by other authors are used with 
+ * start the application, or, given {@code --headless}, make a batch of mazes
+ * without a window. All classes used by other authors are used with 
  * permission. Credit is given when due. This includes MessageDisplay.java, 
  * ValidResult.java, Validation.java, ValidationException.java
  *
@@ -19,10 +21,17 @@ public class Maze {
      * <p>
      * Execute: </p>
      * <pre>java main.Maze</pre>
+     * <p>
+     * or, to make mazes without a window: </p>
+     * <pre>java main.Maze --headless --cols N --rows M --count K --seed S --out dir</pre>
      *
-     * @param args	not used
+     * @param args	{@code --headless} and its options, or nothing for the
+     *			window
      */
     public static void main(String args[]) {
+        if (Arrays.asList(args).contains("--headless")) {
+            System.exit(BatchGenerator.run(args, System.out, System.err));
+        }
         MazeView.launch();
     }
 }
@@ -0,0 +1,127 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Solves a maze by A* search, using the Manhattan distance to the goal as the
+ * heuristic. Open cells are kept in a binary heap of {@code long}s, each holding
+ * the estimated length of the path through the cell in the high half and the
+ * cell index in the low half; the cell each was reached from is kept in an
+ * {@code int} array, which also marks the cells already reached.
+ * <p>
+ * A* favors cells in the direction of the goal, which helps most in mazes with
+ * a directional bias; in a winding maze it expands about as many cells as
+ * breadth first search, at a higher cost per cell. Time is O(n log n) for n
+ * cells; memory is sixteen bytes per cell. </p>
+ */
+public class AStarSolver implements MazeSolver {
+
+    /**
+     * Marks, in {@code parent}, the cells not yet reached.
+     */
+    private static final int UNREACHED = -1;
+
+    private int[] parent;
+    private int[] distance;     // length of the path from the start to each reached cell
+    private long[] heap;
+
+    private int expanded;
+
+    @Override
+    public int[] solve(Grid grid, int start, int goal) {
+        final int cols = grid.getCols();
+        final int cells = Grids.cellCount(grid);
+        if (this.parent == null || this.parent.length < cells) {
+            this.parent = new int[cells];
+            this.distance = new int[cells];
+            this.heap = new long[cells];
+        }
+        int[] parent = this.parent;
+        int[] distance = this.distance;
+        long[] heap = this.heap;
+        Arrays.fill(parent, 0, cells, UNREACHED);
+        final int goalX = goal % cols;
+        final int goalY = goal / cols;
+        expanded = 0;
+        parent[start] = start;
+        distance[start] = 0;
+        int size = push(heap, 0, start, estimate(start, 0, cols, goalX, goalY));
+        while (size > 0) {
+            int cell = (int) heap[0];
+            size = pop(heap, size);
+            if (cell == goal) {
+                return Grids.path(parent, start, goal);
+            }
+            expanded++;
+            int y = cell / cols;
+            int x = cell - y * cols;
+            int passages = grid.getPassages(x, y);
+            for (Direction dir : Direction.ALL) {
+                if ((passages & dir.bit) != 0) {
+                    int next = cell + dir.dy * cols + dir.dx;
+                    if (parent[next] == UNREACHED) {
+                        parent[next] = cell;
+                        distance[next] = distance[cell] + 1;
+                        size = push(heap, size, next,
+                                estimate(next, distance[next], cols, goalX, goalY));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The length of the path so far plus the Manhattan distance to the goal.
+     */
+    private static long estimate(int cell, int distance, int cols, int goalX, int goalY) {
+        return (long) distance + Math.abs(cell % cols - goalX) + Math.abs(cell / cols - goalY);
+    }
+
+    /**
+     * Add a cell to the heap, returning the new size of the heap.
+     */
+    private static int push(long[] heap, int size, int cell, long estimate) {
+        long entry = (estimate << 32) | cell;
+        int i = size;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heap[up] <= entry) {
+                break;
+            }
+            heap[i] = heap[up];
+            i = up;
+        }
+        heap[i] = entry;
+        return size + 1;
+    }
+
+    /**
+     * Remove the first entry of the heap, returning the new size of the heap.
+     */
+    private static int pop(long[] heap, int size) {
+        long entry = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (entry <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = entry;
+        return size;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return expanded;
+    }
+}
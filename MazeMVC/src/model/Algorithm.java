@@ -0,0 +1,55 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * The maze generation algorithms that may be selected when making a new maze.
+ */
+public enum Algorithm {
+    BACKTRACKER("Recursive Backtracker", BacktrackerGenerator::new),
+    KRUSKAL("Kruskal", KruskalGenerator::new),
+    PRIM("Prim", PrimGenerator::new),
+    WILSON("Wilson", WilsonGenerator::new),
+    ELLER("Eller", EllerGenerator::new),
+    HUNT_AND_KILL("Hunt-and-Kill", HuntAndKillGenerator::new),
+    BINARY_TREE("Binary Tree", BinaryTreeGenerator::new),
+    SIDEWINDER("Sidewinder", SidewinderGenerator::new);
+
+    private final String displayName;
+    private final Function<SplittableRandom, MazeGenerator> factory;
+
+    Algorithm(String displayName, Function<SplittableRandom, MazeGenerator> factory) {
+        this.displayName = displayName;
+        this.factory = factory;
+    }
+
+    /**
+     * A new generator for this algorithm. The generator has a random number
+     * generator of its own, so generators made from the same seed produce the
+     * same mazes.
+     *
+     * @param seed	the seed for the random choices made while carving
+     * @return	the generator
+     */
+    public MazeGenerator newGenerator(long seed) {
+        return factory.apply(new SplittableRandom(seed));
+    }
+
+    /**
+     * A new generator for this algorithm, using the given source of random
+     * choices. The source should not be shared with another thread; use
+     * {@link SplittableRandom#split()} to give each thread its own.
+     *
+     * @param random	source of the random choices made while carving
+     * @return	the generator
+     */
+    public MazeGenerator newGenerator(SplittableRandom random) {
+        return factory.apply(random);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using the recursive backtracker (randomized depth
+ * first search), without recursion. The path being explored is kept on an
+ * explicit stack of cell indices, so the size of the maze is limited by the heap
+ * rather than by the stack of the calling thread.
+ * <p>
+ * Each time a cell is on top of the stack, the directions are tried in a
+ * random order (one of the precomputed orderings, so nothing is allocated) and
+ * the first leading to an unvisited neighbor is taken. This gives the same
+ * mazes, with the same likelihood, as shuffling the directions once on entry to
+ * each cell of the recursive version. </p>
+ * <p>
+ * Mazes have long, winding corridors and few dead ends. Time is O(n) for n
+ * cells; memory is one bit per cell plus the stack, up to four bytes per cell
+ * in the worst case. </p>
+ */
+public class BacktrackerGenerator implements MazeGenerator {
+
+    /**
+     * Initial capacity of the stack; it grows as the path gets longer.
+     */
+    private static final int INITIAL_STACK_SIZE = 1024;
+
+    private final SplittableRandom random;
+
+    private long[] visited;
+    private int[] stack;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public BacktrackerGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Carve passages into the given maze, starting from the top left cell.
+     *
+     * @param grid	the cells of the maze
+     * @throws IllegalArgumentException if the maze has more cells than can be
+     *			indexed by an {@code int}
+     */
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int cells = Grids.cellCount(grid);
+        long[] visited = this.visited = BitSets.reuse(this.visited, cells);
+        if (this.stack == null) {
+            this.stack = new int[Math.min(cells, INITIAL_STACK_SIZE)];
+        }
+        int[] stack = this.stack;
+        int top = 0;
+        stack[top++] = 0;
+        BitSets.set(visited, 0);
+        while (top > 0) {
+            int cell = stack[top - 1];
+            int x = cell % cols;
+            int y = cell / cols;
+            Direction dir = null;
+            for (Direction d : Direction.randomOrder(random)) {
+                int i = x + d.dx;
+                int j = y + d.dy;
+                if (i >= 0 && i < cols && j >= 0 && j < rows
+                        && !BitSets.get(visited, j * cols + i)) {
+                    dir = d;
+                    break;
+                }
+            }
+            if (dir == null) {
+                top--;      // dead end, so backtrack
+                continue;
+            }
+            int i = x + dir.dx;
+            int j = y + dir.dy;
+            grid.carve(x, y, dir);
+            if (top == stack.length) {
+                stack = this.stack = Arrays.copyOf(stack,
+                        (int) Math.min(cells, (long) stack.length * 2));
+            }
+            int next = j * cols + i;
+            BitSets.set(visited, next);
+            stack[top++] = next;
+        }
+    }
+}
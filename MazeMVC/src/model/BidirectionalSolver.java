@@ -0,0 +1,158 @@
+package model;
+
+/**
+ * Solves a maze by two breadth first searches, one from the start and one from
+ * the goal, that meet in the middle. The side with the smaller frontier is
+ * advanced by a whole level at a time. Cells reached from each side are marked
+ * in a bitset of their own, so the search begins by clearing two bits per cell
+ * rather than an array of {@code int}s.
+ * <p>
+ * Both searches share one array for their queues (the search from the start
+ * fills it from the front, the search from the goal from the back), and one
+ * array holding the cell each cell was reached from, since no cell is reached
+ * from both sides before they meet. </p>
+ * <p>
+ * The path found is a shortest one, in any maze, perfect or with loops, though
+ * the search returns at the first meeting. Each neighbor found is checked
+ * against every cell reached from the other side, not only its frontier, and
+ * levels are expanded whole. So, when a cell at distance a from its end
+ * meets a cell reached from the other side, that cell is at distance b, the
+ * depth of the other frontier: had it been nearer, the meeting would have
+ * been found when it was expanded. Every meeting in a level thus gives a path
+ * of the same length a + b + 1, and no shorter path was passed over in an
+ * earlier level. </p>
+ * <p>
+ * In a maze with n cells, the two searches together usually expand far fewer
+ * cells than a single search, which must expand every cell closer to the start
+ * than the goal is. Time is O(n) in the worst case; memory is eight bytes and
+ * two bits per cell. </p>
+ */
+public class BidirectionalSolver implements MazeSolver {
+
+    private long[] fromStart;
+    private long[] fromGoal;
+    private int[] parent;
+    private int[] queue;
+    private int tail;           // next free place in the queue of the side being advanced
+    private int expanded;
+
+    @Override
+    public int[] solve(Grid grid, int start, int goal) {
+        final int cols = grid.getCols();
+        final int cells = Grids.cellCount(grid);
+        fromStart = BitSets.reuse(fromStart, cells);
+        fromGoal = BitSets.reuse(fromGoal, cells);
+        if (parent == null || parent.length < cells) {
+            parent = new int[cells];
+            queue = new int[cells];
+        }
+        expanded = 0;
+        if (start == goal) {
+            return new int[]{start};
+        }
+        BitSets.set(fromStart, start);
+        BitSets.set(fromGoal, goal);
+        parent[start] = start;
+        parent[goal] = goal;
+        /* The start side's queue is queue[startHead..startTail), growing up;
+           the goal side's is queue[goalTail+1..goalHead], growing down. */
+        int startHead = 0;
+        int startTail = 0;
+        int goalHead = cells - 1;
+        int goalTail = cells - 1;
+        queue[startTail++] = start;
+        queue[goalTail--] = goal;
+        while (startHead < startTail && goalHead > goalTail) {
+            if (startTail - startHead <= goalHead - goalTail) {
+                tail = startTail;
+                for (int end = startTail; startHead < end; ) {
+                    int cell = queue[startHead++];
+                    int meet = expand(grid, cols, cell, fromStart, fromGoal, 1);
+                    if (meet >= 0) {
+                        // No other meeting in this level is shorter.
+                        return path(cell, meet, start, goal);
+                    }
+                }
+                startTail = tail;
+            } else {
+                tail = goalTail;
+                for (int end = goalTail; goalHead > end; ) {
+                    int cell = queue[goalHead--];
+                    int meet = expand(grid, cols, cell, fromGoal, fromStart, -1);
+                    if (meet >= 0) {
+                        return path(meet, cell, start, goal);
+                    }
+                }
+                goalTail = tail;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Expand a cell: add its neighbors not yet reached from this side to this
+     * side's queue, at {@code tail}, unless one has been reached from the other
+     * side.
+     *
+     * @param mine	the cells reached from this side
+     * @param other	the cells reached from the other side
+     * @param step	the direction in which this side's queue grows
+     * @return	the neighbor reached from the other side, or -1 if none
+     */
+    private int expand(Grid grid, int cols, int cell, long[] mine, long[] other, int step) {
+        expanded++;
+        int y = cell / cols;
+        int passages = grid.getPassages(cell - y * cols, y);
+        for (Direction dir : Direction.ALL) {
+            if ((passages & dir.bit) != 0) {
+                int next = cell + dir.dy * cols + dir.dx;
+                if (BitSets.get(other, next)) {
+                    return next;
+                }
+                if (!BitSets.get(mine, next)) {
+                    BitSets.set(mine, next);
+                    parent[next] = cell;
+                    queue[tail] = next;
+                    tail += step;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The path through the two neighboring cells where the searches met.
+     *
+     * @param near	the cell reached from the start
+     * @param far	the cell reached from the goal
+     */
+    private int[] path(int near, int far, int start, int goal) {
+        int length = 0;
+        for (int cell = near; ; cell = parent[cell]) {
+            length++;
+            if (cell == start) {
+                break;
+            }
+        }
+        int nearLength = length;
+        for (int cell = far; ; cell = parent[cell]) {
+            length++;
+            if (cell == goal) {
+                break;
+            }
+        }
+        int[] path = new int[length];
+        for (int i = nearLength - 1, cell = near; i >= 0; i--, cell = parent[cell]) {
+            path[i] = cell;
+        }
+        for (int i = nearLength, cell = far; i < length; i++, cell = parent[cell]) {
+            path[i] = cell;
+        }
+        return path;
+    }
+}
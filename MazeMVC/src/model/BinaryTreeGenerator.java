@@ -0,0 +1,44 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using the binary tree algorithm: every cell opens
+ * either to the east or to the south, chosen at random where both are possible.
+ * Cells on the east edge open south and cells on the south edge open east, so
+ * the east and south edges of the maze are unbroken corridors.
+ * <p>
+ * Mazes have a strong diagonal bias, and the path from the entrance to the
+ * exit never turns back. Time is O(n) for n cells; no memory is needed beyond
+ * the maze itself, and any number of rows can be generated. </p>
+ */
+public class BinaryTreeGenerator implements MazeGenerator {
+
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public BinaryTreeGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                boolean canEast = x < cols - 1;
+                boolean canSouth = y < rows - 1;
+                if (canEast && (!canSouth || random.nextBoolean())) {
+                    grid.openEast(x, y);
+                } else if (canSouth) {
+                    grid.openSouth(x, y);
+                }
+            }
+        }
+    }
+}
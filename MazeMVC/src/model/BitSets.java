@@ -0,0 +1,63 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Operations on sets of cell indices held as bits in a {@code long[]}. These
+ * are much smaller than a {@code boolean[]} and, unlike {@code java.util.BitSet},
+ * do no bounds checking or resizing.
+ */
+final class BitSets {
+
+    /**
+     * Constructor: private to prevent instantiation
+     */
+    private BitSets() {}
+
+    /**
+     * A new, empty set large enough to hold the indices {@code 0..size-1}.
+     */
+    static long[] create(int size) {
+        return new long[(int) (((long) size + 63) >>> 6)];
+    }
+
+    /**
+     * An empty set large enough to hold the indices {@code 0..size-1}, reusing
+     * the given set if it is large enough.
+     */
+    static long[] reuse(long[] bits, int size) {
+        int words = (int) (((long) size + 63) >>> 6);
+        if (bits == null || bits.length < words) {
+            return new long[words];
+        }
+        Arrays.fill(bits, 0, words, 0L);
+        return bits;
+    }
+
+    static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * The lowest index, from {@code from} on, that is not in the set, skipping
+     * 64 indices at a time; or {@code size} if every index below it is.
+     */
+    static int nextClear(long[] bits, int from, int size) {
+        if (from >= size) {
+            return size;
+        }
+        int word = from >>> 6;
+        long clear = ~bits[word] & (-1L << from);
+        while (clear == 0) {
+            if (((long) ++word << 6) >= size) {
+                return size;
+            }
+            clear = ~bits[word];
+        }
+        return (int) Math.min(((long) word << 6) + Long.numberOfTrailingZeros(clear), size);
+    }
+}
@@ -0,0 +1,66 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Solves a maze by breadth first search from the starting cell. Cells waiting
+ * to be expanded are kept in an {@code int} queue, and the cell each was reached
+ * from in an {@code int} array, which also marks the cells already reached.
+ * <p>
+ * Time is O(n) for n cells; memory is eight bytes per cell. </p>
+ */
+public class BreadthFirstSolver implements MazeSolver {
+
+    /**
+     * Marks, in {@code parent}, the cells not yet reached.
+     */
+    private static final int UNREACHED = -1;
+
+    private int[] parent;
+    private int[] queue;
+
+    private int expanded;
+
+    @Override
+    public int[] solve(Grid grid, int start, int goal) {
+        final int cols = grid.getCols();
+        final int cells = Grids.cellCount(grid);
+        if (this.parent == null || this.parent.length < cells) {
+            this.parent = new int[cells];
+            this.queue = new int[cells];
+        }
+        int[] parent = this.parent;
+        int[] queue = this.queue;
+        Arrays.fill(parent, 0, cells, UNREACHED);
+        int head = 0;
+        int tail = 0;
+        expanded = 0;
+        parent[start] = start;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == goal) {
+                return Grids.path(parent, start, goal);
+            }
+            expanded++;
+            int y = cell / cols;
+            int x = cell - y * cols;
+            int passages = grid.getPassages(x, y);
+            for (Direction dir : Direction.ALL) {
+                if ((passages & dir.bit) != 0) {
+                    int next = cell + dir.dy * cols + dir.dx;
+                    if (parent[next] == UNREACHED) {
+                        parent[next] = cell;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getNodesExpanded() {
+        return expanded;
+    }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Grid} kept in byte buffers, with two bits per cell (open east and
+ * open south), four cells to a byte, in row order: the layout of the cells of
+ * a {@link MazeFile}. A buffer holds at most 2 GB, so the cells are spread
+ * over segments of a gigabyte and addressed by a {@code long} index.
+ * <p>
+ * Opening a passage changes one byte. Cells sharing a byte must not be opened
+ * by different threads at the same time, which holds for the bands of tiles
+ * of a {@link TiledGenerator}. </p>
+ */
+abstract class BufferGrid implements Grid {
+
+    private static final int EAST = 1;
+    private static final int SOUTH = 2;
+
+    /**
+     * The number of bytes in each segment, as a power of two.
+     */
+    static final int SEGMENT_SHIFT = 30;
+
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final int cols;
+    private final int rows;
+    private final ByteBuffer[] segments;
+
+    /**
+     * Constructor.
+     *
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @param segments	the buffers holding the cells, each but the last
+     *			{@code 1 << SEGMENT_SHIFT} bytes long
+     */
+    BufferGrid(int cols, int rows, ByteBuffer[] segments) {
+        this.cols = cols;
+        this.rows = rows;
+        this.segments = segments;
+    }
+
+    /**
+     * The number of bytes taken by the cells of a maze.
+     */
+    static long byteCount(int cols, int rows) {
+        return ((long) cols * rows + 3) >>> 2;
+    }
+
+    /**
+     * The number of segments needed for the given number of bytes.
+     */
+    static int segmentCount(long bytes) {
+        return (int) ((bytes + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * The size of a segment holding the given bytes from the start of the
+     * cells.
+     */
+    static int segmentSize(int segment, long bytes) {
+        return (int) Math.min(SEGMENT_MASK + 1, bytes - ((long) segment << SEGMENT_SHIFT));
+    }
+
+    /**
+     * The buffers holding the cells.
+     */
+    final ByteBuffer[] segments() {
+        return segments;
+    }
+
+    @Override
+    public final int getCols() {
+        return cols;
+    }
+
+    @Override
+    public final int getRows() {
+        return rows;
+    }
+
+    @Override
+    public final boolean isOpenEast(int x, int y) {
+        return (bits((long) y * cols + x) & EAST) != 0;
+    }
+
+    @Override
+    public final boolean isOpenSouth(int x, int y) {
+        return (bits((long) y * cols + x) & SOUTH) != 0;
+    }
+
+    @Override
+    public final void openEast(int x, int y) {
+        set((long) y * cols + x, EAST);
+    }
+
+    @Override
+    public final void openSouth(int x, int y) {
+        set((long) y * cols + x, SOUTH);
+    }
+
+    private int bits(long cell) {
+        long index = cell >>> 2;
+        int b = segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+        return (b >>> ((cell & 3) << 1)) & 3;
+    }
+
+    private void set(long cell, int bit) {
+        long index = cell >>> 2;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+        int offset = (int) (index & SEGMENT_MASK);
+        segment.put(offset, (byte) (segment.get(offset) | bit << ((cell & 3) << 1)));
+    }
+}
@@ -0,0 +1,58 @@
+package model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Grid} kept off the heap, in direct byte buffers, with two bits per
+ * cell as in a {@link MazeFile}. The garbage collector never scans or copies
+ * the cells, so a large maze held for a long time adds nothing to the time
+ * of each collection; a maze of 10,000 by 10,000 cells takes 25 MB outside
+ * the heap and a few hundred bytes in it.
+ * <p>
+ * The memory is given back only when the grid itself is collected, and is
+ * limited by {@code -XX:MaxDirectMemorySize}, so a grid is best kept and
+ * {@link #clear cleared} for the next maze of the same size rather than
+ * allocated again. </p>
+ */
+public final class DirectGrid extends BufferGrid {
+
+    /**
+     * Constructor: a maze with all its walls in place.
+     *
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @throws IllegalArgumentException if either dimension is not positive
+     * @throws OutOfMemoryError if there is not enough direct memory
+     */
+    public DirectGrid(int cols, int rows) {
+        super(cols, rows, allocate(cols, rows));
+    }
+
+    private static ByteBuffer[] allocate(int cols, int rows) {
+        if (cols < 1 || rows < 1) {
+            throw new IllegalArgumentException("Invalid maze size: " + cols + " x " + rows);
+        }
+        long size = byteCount(cols, rows);
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = ByteBuffer.allocateDirect(segmentSize(s, size));
+        }
+        return segments;
+    }
+
+    /**
+     * Put back all the walls, so the grid can be used for another maze of the
+     * same size.
+     */
+    public void clear() {
+        for (ByteBuffer segment : segments()) {
+            int i = 0;
+            for (int end = segment.capacity() - Long.BYTES; i <= end; i += Long.BYTES) {
+                segment.putLong(i, 0L);
+            }
+            for (; i < segment.capacity(); i++) {
+                segment.put(i, (byte) 0);
+            }
+        }
+    }
+}
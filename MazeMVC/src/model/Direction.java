@@ -0,0 +1,68 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * The four directions a passage may lead from a cell of the maze. Each
+ * direction has a distinct bit, so that the open sides of a cell can be kept as
+ * a single small integer.
+ */
+public enum Direction {
+    N(1, 0, -1), S(2, 0, 1), E(4, 1, 0), W(8, -1, 0);
+    // use the static initializer to resolve forward references
+    static {
+        N.opposite = S;
+        S.opposite = N;
+        E.opposite = W;
+        W.opposite = E;
+    }
+
+    /**
+     * All the directions. Unlike {@code values()}, this does not make a new
+     * array on each use; it must not be modified.
+     */
+    static final Direction[] ALL = values();
+
+    /**
+     * Each of the 24 orderings of the four directions, so that a random order
+     * can be chosen without shuffling; none of them may be modified.
+     */
+    private static final Direction[][] ORDERS = new Direction[24][];
+
+    static {
+        int n = 0;
+        for (Direction a : ALL) {
+            for (Direction b : ALL) {
+                for (Direction c : ALL) {
+                    for (Direction d : ALL) {
+                        if (a != b && a != c && a != d && b != c && b != d && c != d) {
+                            ORDERS[n++] = new Direction[]{a, b, c, d};
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    final int bit;
+    final int dx;
+    final int dy;
+    Direction opposite;
+
+    Direction(int bit, int dx, int dy) {
+        this.bit = bit;
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * A random ordering of the four directions, chosen from the precomputed
+     * orderings using the high bits of one random number. Nothing is allocated.
+     *
+     * @param random	source of the random bits
+     * @return	the directions in random order; must not be modified
+     */
+    static Direction[] randomOrder(SplittableRandom random) {
+        return ORDERS[(int) (((random.nextInt() & 0xFFFFFFFFL) * ORDERS.length) >>> 32)];
+    }
+}
@@ -0,0 +1,115 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using Eller's algorithm, one row at a time. Cells of
+ * the current row that are already connected (through the rows above) are kept
+ * in the same set; walls to the east are removed at random between cells of
+ * different sets, and each set gets at least one opening to the south. The last
+ * row joins whatever sets remain.
+ * <p>
+ * Because connections are made only through rows already complete, the sets
+ * never cross one another. Each set is therefore kept as a circular list of its
+ * columns in increasing order, in the {@code left} and {@code right} arrays, and
+ * two neighboring columns are in the same set exactly when one follows the other
+ * in the list. </p>
+ * <p>
+ * Mazes have a slight horizontal bias. Time is O(n) for n cells; memory is eight
+ * bytes per column, independent of the number of rows. </p>
+ */
+public class EllerGenerator implements MazeGenerator {
+
+    /**
+     * Bit set in a row cell when the cell is open to the east.
+     */
+    static final int EAST = 1;
+
+    /**
+     * Bit set in a row cell when the cell is open to the south.
+     */
+    static final int SOUTH = 2;
+
+    private final SplittableRandom random;
+
+    private int[] left;
+    private int[] right;
+    private byte[] row;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public EllerGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        if (this.row == null || this.row.length != cols) {
+            this.row = new byte[cols];
+        }
+        byte[] row = this.row;
+        start(cols);
+        for (int y = 0; y < rows; y++) {
+            nextRow(row, y == rows - 1);
+            for (int x = 0; x < cols; x++) {
+                if ((row[x] & EAST) != 0) {
+                    grid.openEast(x, y);
+                }
+                if ((row[x] & SOUTH) != 0) {
+                    grid.openSouth(x, y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Begin a new maze with the given number of columns, each column of the
+     * first row in a set of its own.
+     */
+    void start(int cols) {
+        if (left == null || left.length != cols) {
+            left = new int[cols];
+            right = new int[cols];
+        }
+        for (int x = 0; x < cols; x++) {
+            left[x] = right[x] = x;
+        }
+    }
+
+    /**
+     * Decide the openings of the next row, setting the {@code EAST} and
+     * {@code SOUTH} bits of each cell in {@code row}.
+     *
+     * @param row	receives the openings of each column
+     * @param last	true if this is the bottom row of the maze
+     */
+    void nextRow(byte[] row, boolean last) {
+        final int cols = left.length;
+        for (int x = 0; x < cols; x++) {
+            int bits = 0;
+            int next = x + 1;
+            if (next < cols && next != right[x] && (last || random.nextBoolean())) {
+                /* Join the set of the next column onto this one. */
+                right[left[next]] = right[x];
+                left[right[x]] = left[next];
+                right[x] = next;
+                left[next] = x;
+                bits |= EAST;
+            }
+            if (last || (x != right[x] && random.nextBoolean())) {
+                /* Wall below; the cell below starts in a set of its own. */
+                right[left[x]] = right[x];
+                left[right[x]] = left[x];
+                right[x] = left[x] = x;
+            } else {
+                bits |= SOUTH;
+            }
+            row[x] = (byte) bits;
+        }
+    }
+}
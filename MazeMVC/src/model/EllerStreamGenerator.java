@@ -0,0 +1,108 @@
+package model;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze with Eller's algorithm and writes it out one row at
+ * a time, without ever holding the whole maze. Only the sets of the current row
+ * and a small output buffer are kept, so memory depends on the number of
+ * columns alone: a maze of a million by a million cells needs about 9 MB.
+ * <p>
+ * The output is the openings of every cell, in row order, two bits to a cell
+ * (the low bit open east, the high bit open south) and four cells to a byte,
+ * starting at the low bits. Rows follow one another without padding, so this is
+ * the same layout as the words of a {@link PackedGrid} written in little-endian
+ * order. The final byte is padded with zero bits. </p>
+ */
+public class EllerStreamGenerator {
+
+    /**
+     * Size of the buffer used to collect rows before writing them.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EllerGenerator eller;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public EllerStreamGenerator(SplittableRandom random) {
+        this.eller = new EllerGenerator(random);
+    }
+
+    /**
+     * Generate a maze and write it to the given stream. The stream is not
+     * closed.
+     *
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @param out	where the maze is written
+     * @throws IOException if the maze cannot be written
+     */
+    public void generate(int cols, long rows, OutputStream out) throws IOException {
+        generate(cols, rows, Channels.newChannel(out));
+    }
+
+    /**
+     * Generate a maze and write it to the given channel. The channel is not
+     * closed.
+     *
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @param out	where the maze is written
+     * @throws IOException if the maze cannot be written
+     * @throws IllegalArgumentException if either dimension is not positive
+     */
+    public void generate(int cols, long rows, WritableByteChannel out) throws IOException {
+        if (cols < 1 || rows < 1) {
+            throw new IllegalArgumentException("Invalid maze size: " + cols + " x " + rows);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] row = new byte[cols];
+        long pending = 0;       // cells not yet written, two bits each
+        int pendingBits = 0;
+        eller.start(cols);
+        for (long y = 0; y < rows; y++) {
+            eller.nextRow(row, y == rows - 1);
+            for (int x = 0; x < cols; x++) {
+                pending |= (long) row[x] << pendingBits;
+                pendingBits += 2;
+                if (pendingBits == Long.SIZE) {
+                    if (!buffer.hasRemaining()) {
+                        drain(buffer, out);
+                    }
+                    buffer.putLong(pending);
+                    pending = 0;
+                    pendingBits = 0;
+                }
+            }
+        }
+        for (; pendingBits > 0; pendingBits -= Byte.SIZE) {
+            if (!buffer.hasRemaining()) {
+                drain(buffer, out);
+            }
+            buffer.put((byte) pending);
+            pending >>>= Byte.SIZE;
+        }
+        drain(buffer, out);
+    }
+
+    /**
+     * Write out everything in the buffer, leaving it empty.
+     */
+    private static void drain(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
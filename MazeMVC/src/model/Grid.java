@@ -0,0 +1,108 @@
+package model;
+
+/**
+ * The cells of a rectangular maze and the passages between them. Cells are
+ * addressed by column {@code x} and row {@code y}, with {@code (0, 0)} at the top
+ * left. Each cell records only whether it is open to the east and to the south;
+ * the north and west sides of a cell are the south and east sides of its
+ * neighbors, so every passage is stored exactly once.
+ */
+public interface Grid {
+
+    /**
+     * The number of columns (cells across) in the maze.
+     *
+     * @return the number of columns
+     */
+    int getCols();
+
+    /**
+     * The number of rows (cells down) in the maze.
+     *
+     * @return the number of rows
+     */
+    int getRows();
+
+    /**
+     * Whether there is a passage from the given cell to its east neighbor.
+     *
+     * @param x	column of the cell
+     * @param y	row of the cell
+     * @return	true if the east side of the cell is open
+     */
+    boolean isOpenEast(int x, int y);
+
+    /**
+     * Whether there is a passage from the given cell to its south neighbor.
+     *
+     * @param x	column of the cell
+     * @param y	row of the cell
+     * @return	true if the south side of the cell is open
+     */
+    boolean isOpenSouth(int x, int y);
+
+    /**
+     * Open a passage from the given cell to its east neighbor.
+     *
+     * @param x	column of the cell
+     * @param y	row of the cell
+     */
+    void openEast(int x, int y);
+
+    /**
+     * Open a passage from the given cell to its south neighbor.
+     *
+     * @param x	column of the cell
+     * @param y	row of the cell
+     */
+    void openSouth(int x, int y);
+
+    /**
+     * The open sides of a cell, as the sum of the {@link Direction} bits.
+     *
+     * @param x	column of the cell
+     * @param y	row of the cell
+     * @return	the bits of the directions in which the cell is open
+     */
+    default int getPassages(int x, int y) {
+        int bits = 0;
+        if (y > 0 && isOpenSouth(x, y - 1)) {
+            bits |= Direction.N.bit;
+        }
+        if (isOpenSouth(x, y)) {
+            bits |= Direction.S.bit;
+        }
+        if (isOpenEast(x, y)) {
+            bits |= Direction.E.bit;
+        }
+        if (x > 0 && isOpenEast(x - 1, y)) {
+            bits |= Direction.W.bit;
+        }
+        return bits;
+    }
+
+    /**
+     * Open a passage from the given cell to its neighbor in the given
+     * direction. The neighbor must be inside the maze.
+     *
+     * @param x	column of the cell
+     * @param y	row of the cell
+     * @param dir	the side of the cell to open
+     */
+    default void carve(int x, int y, Direction dir) {
+        switch (dir) {
+            case N:
+                openSouth(x, y - 1);
+                break;
+            case S:
+                openSouth(x, y);
+                break;
+            case E:
+                openEast(x, y);
+                break;
+            case W:
+                openEast(x - 1, y);
+                break;
+        }
+    }
+}
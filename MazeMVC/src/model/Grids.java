@@ -0,0 +1,51 @@
+package model;
+
+/**
+ * Helpers shared by the algorithms that keep per-cell state in arrays indexed
+ * by {@code y * cols + x}.
+ */
+final class Grids {
+
+    /**
+     * Constructor: private to prevent instantiation
+     */
+    private Grids() {}
+
+    /**
+     * The number of cells in the maze.
+     *
+     * @param grid	the maze
+     * @return	the number of cells
+     * @throws IllegalArgumentException if the cells cannot be indexed by an
+     *			{@code int}
+     */
+    static int cellCount(Grid grid) {
+        long cells = (long) grid.getCols() * grid.getRows();
+        if (cells > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maze too large: "
+                    + grid.getCols() + " x " + grid.getRows());
+        }
+        return (int) cells;
+    }
+
+    /**
+     * The path from {@code start} to {@code goal}, following back from the goal
+     * the cell each cell was reached from.
+     *
+     * @param parent	the cell from which each cell was reached
+     * @param start	the index of the cell where the path begins
+     * @param goal	the index of the cell where the path ends
+     * @return	the indices of the cells along the path, start first
+     */
+    static int[] path(int[] parent, int start, int goal) {
+        int length = 1;
+        for (int cell = goal; cell != start; cell = parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = length - 1, cell = goal; i >= 0; i--, cell = parent[cell]) {
+            path[i] = cell;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,85 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using the hunt-and-kill algorithm. A random walk,
+ * starting from the top left cell, carves through unvisited cells until it
+ * reaches a dead end; the grid is then scanned (the hunt), row by row, for the
+ * first unvisited cell, which is joined to the maze and becomes the start of
+ * the next walk.
+ * <p>
+ * Every cell before the first unvisited one is visited, including the cell
+ * above it or, in the top row, the cell to its left, so that cell is always
+ * next to the maze. Each hunt therefore resumes where the last one stopped and
+ * never scans a cell twice, passing over visited cells 64 at a time. </p>
+ * <p>
+ * Mazes resemble those of the recursive backtracker, with long corridors, but
+ * need no stack. Time is O(n): the walks visit each cell once, and the hunts
+ * together scan the grid once. Memory is one bit per cell. </p>
+ */
+public class HuntAndKillGenerator implements MazeGenerator {
+
+    private final SplittableRandom random;
+
+    private long[] visited;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public HuntAndKillGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int cells = Grids.cellCount(grid);
+        long[] visited = this.visited = BitSets.reuse(this.visited, cells);
+        int x = 0;
+        int y = 0;
+        BitSets.set(visited, 0);
+        int hunt = 0;
+        while (true) {
+            /* Kill: walk to random unvisited neighbors until there are none. */
+            Direction dir = neighbor(x, y, cols, rows, visited, false);
+            if (dir != null) {
+                grid.carve(x, y, dir);
+                x += dir.dx;
+                y += dir.dy;
+                BitSets.set(visited, y * cols + x);
+                continue;
+            }
+            /* Hunt: join the first unvisited cell to the maze. Every cell
+               before hunt is visited, so the scan resumes there. */
+            hunt = BitSets.nextClear(visited, hunt, cells);
+            if (hunt == cells) {
+                return;
+            }
+            x = hunt % cols;
+            y = hunt / cols;
+            grid.carve(x, y, neighbor(x, y, cols, rows, visited, true));
+            BitSets.set(visited, hunt);
+        }
+    }
+
+    /**
+     * The direction of a random neighbor of the given cell whose visited state
+     * is {@code wanted}, or null if there is none.
+     */
+    private Direction neighbor(int x, int y, int cols, int rows, long[] visited,
+            boolean wanted) {
+        for (Direction dir : Direction.randomOrder(random)) {
+            int i = x + dir.dx;
+            int j = y + dir.dy;
+            if (i >= 0 && i < cols && j >= 0 && j < rows
+                    && BitSets.get(visited, j * cols + i) == wanted) {
+                return dir;
+            }
+        }
+        return null;
+    }
+}
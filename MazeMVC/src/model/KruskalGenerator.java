@@ -0,0 +1,111 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using randomized Kruskal's algorithm. Every wall
+ * between two cells is listed and shuffled; each wall in turn is removed if the
+ * cells on either side are not yet connected. Connectivity is tracked with a
+ * union-find forest using union by size and path halving.
+ * <p>
+ * Mazes have many short dead ends and no directional bias. Time is
+ * O(n &alpha;(n)) for n cells; memory is twelve bytes per cell (the list of
+ * walls and the forest). </p>
+ */
+public class KruskalGenerator implements MazeGenerator {
+
+    private final SplittableRandom random;
+
+    private int[] walls;
+    private int[] parent;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public KruskalGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Carve passages into the given maze.
+     *
+     * @param grid	the cells of the maze
+     * @throws IllegalArgumentException if the maze has more than
+     *			{@code 2^30} cells
+     */
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int cells = Grids.cellCount(grid);
+        if (cells > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Maze too large: " + cols + " x " + rows);
+        }
+        /* A wall is the cell index times two, plus one if it is the south wall. */
+        int wallCount = (cols - 1) * rows + cols * (rows - 1);
+        if (this.walls == null || this.walls.length < wallCount) {
+            this.walls = new int[wallCount];
+        }
+        int[] walls = this.walls;
+        int count = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (cell % cols != cols - 1) {
+                walls[count++] = cell << 1;
+            }
+            if (cell < cells - cols) {
+                walls[count++] = (cell << 1) | 1;
+            }
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = walls[i];
+            walls[i] = walls[j];
+            walls[j] = tmp;
+        }
+        /* Negative entries are roots, holding minus the size of their tree. */
+        if (this.parent == null || this.parent.length < cells) {
+            this.parent = new int[cells];
+        }
+        int[] parent = this.parent;
+        Arrays.fill(parent, 0, cells, -1);
+        int remaining = cells - 1;
+        for (int i = 0; i < count && remaining > 0; i++) {
+            int cell = walls[i] >>> 1;
+            boolean south = (walls[i] & 1) != 0;
+            int a = find(parent, cell);
+            int b = find(parent, south ? cell + cols : cell + 1);
+            if (a != b) {
+                if (parent[a] > parent[b]) {
+                    int tmp = a;
+                    a = b;
+                    b = tmp;
+                }
+                parent[a] += parent[b];
+                parent[b] = a;
+                if (south) {
+                    grid.openSouth(cell % cols, cell / cols);
+                } else {
+                    grid.openEast(cell % cols, cell / cols);
+                }
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     * The root of the tree containing the given cell, halving the path to it.
+     */
+    static int find(int[] parent, int cell) {
+        while (parent[cell] >= 0) {
+            int next = parent[cell];
+            if (parent[next] >= 0) {
+                next = parent[cell] = parent[next];
+            }
+            cell = next;
+        }
+        return cell;
+    }
+}
@@ -0,0 +1,170 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A {@link Grid} kept in the cells of a {@link MazeFile}, mapped into memory
+ * rather than loaded onto the heap. The operating system pages the cells in
+ * and out as they are used, so a maze may be far larger than the heap: one of
+ * 100,000 by 100,000 cells takes 2.5 GB of file and almost none of the heap.
+ * <p>
+ * The file is mapped in segments of a gigabyte, since a single buffer cannot
+ * be larger than 2 GB. Opening a passage changes one byte of the file. </p>
+ * <p>
+ * A solution saved after the cells is left untouched; solving a maze needs
+ * state for every cell on the heap, so only mazes of fewer than 2^31 cells,
+ * and a heap to suit, can be solved. </p>
+ */
+public final class MappedGrid extends BufferGrid implements Closeable {
+
+    private final FileChannel channel;
+    private final Algorithm algorithm;
+    private final long seed;
+    private final boolean writable;
+
+    private MappedGrid(FileChannel channel, MazeFile.Header header, ByteBuffer[] segments,
+            boolean writable) {
+        super(header.cols, (int) header.rows, segments);
+        this.channel = channel;
+        this.algorithm = header.algorithm;
+        this.seed = header.seed;
+        this.writable = writable;
+    }
+
+    /**
+     * Map the cells of the maze described by the header.
+     */
+    private static MappedGrid map(FileChannel channel, MazeFile.Header header,
+            boolean writable) throws IOException {
+        if (header.rows > Integer.MAX_VALUE) {
+            throw new IOException("Invalid maze size: " + header.cols + " x " + header.rows);
+        }
+        long size = header.cellBytes();
+        if (channel.size() < MazeFile.HEADER_SIZE + size) {
+            throw new IOException("Maze file too short: " + channel.size() + " bytes");
+        }
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE
+                : FileChannel.MapMode.READ_ONLY;
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(size)];
+        for (int s = 0; s < segments.length; s++) {
+            segments[s] = channel.map(mode,
+                    MazeFile.HEADER_SIZE + ((long) s << SEGMENT_SHIFT), segmentSize(s, size));
+        }
+        return new MappedGrid(channel, header, segments, writable);
+    }
+
+    /**
+     * Make a file for a new maze, with all its walls in place, and map it for
+     * carving. Anything already in the file is replaced.
+     *
+     * @param file	the file to make
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @param algorithm	the algorithm from which the maze will be carved, or
+     *			null
+     * @param seed	the seed from which the maze will be carved
+     * @return	the grid, which must be closed when no longer needed
+     * @throws IOException if the file cannot be made or mapped
+     * @throws IllegalArgumentException if either dimension is not positive
+     */
+    public static MappedGrid create(Path file, int cols, int rows, Algorithm algorithm,
+            long seed) throws IOException {
+        if (cols < 1 || rows < 1) {
+            throw new IllegalArgumentException("Invalid maze size: " + cols + " x " + rows);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MazeFile.writeHeader(channel, cols, rows, algorithm, seed);
+            // every cell starts closed; writing the last byte sizes the file
+            // without writing the rest, which reads as zeros
+            MazeFile.Header header = new MazeFile.Header();
+            header.cols = cols;
+            header.rows = rows;
+            header.algorithm = algorithm;
+            header.seed = seed;
+            channel.write(ByteBuffer.allocate(1), MazeFile.HEADER_SIZE + header.cellBytes() - 1);
+            return map(channel, header, true);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Map the cells of a maze saved in a file.
+     *
+     * @param file	the file to map
+     * @param writable	whether passages may be opened, changing the file
+     * @return	the grid, which must be closed when no longer needed
+     * @throws IOException if the file cannot be read or mapped, is not a maze
+     *			file, is of a later version, or is corrupt
+     */
+    public static MappedGrid open(Path file, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(MazeFile.HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            MappedGrid grid = map(channel, MazeFile.readHeader(channel, buffer), writable);
+            MazeFile.checkEdges(grid);
+            return grid;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * The algorithm recorded in the file.
+     *
+     * @return	the algorithm, or null if the file did not record it
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * The seed recorded in the file.
+     *
+     * @return	the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Write any passages opened back to the file.
+     */
+    public void force() {
+        if (writable) {
+            for (ByteBuffer segment : segments()) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+    /**
+     * Write any passages opened back to the file, and close it. The mapping
+     * itself is released only when the grid is garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            channel.close();
+        }
+    }
+}
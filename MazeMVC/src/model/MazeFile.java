@@ -0,0 +1,475 @@
+package model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A maze as stored in a file of its own binary format, with the algorithm and
+ * seed it was carved from, and its solution if that was saved. All numbers are
+ * little-endian:
+ * <pre>
+ * offset  size  contents
+ *      0     4  the characters "MAZE"
+ *      4     2  version of the format, 1
+ *      6     2  flags: 1 if the solution follows the cells
+ *      8     4  number of columns
+ *     12     8  number of rows
+ *     20     8  seed
+ *     28     1  algorithm: 1 + its ordinal in {@link Algorithm}, or 0 if unknown
+ *     29     3  zero
+ *     32        the cells, as written by {@link EllerStreamGenerator}: two bits
+ *               to a cell (the low bit open east, the high bit open south),
+ *               four cells to a byte, in row order, the last byte padded
+ *               with zero bits
+ *               then, if flagged, the number of steps of the solution (4
+ *               bytes) and the index of the cell of each step (4 bytes each)
+ * </pre>
+ * A maze takes a quarter of a byte for each cell, against eight characters in
+ * its text drawing. The cells of a {@link PackedGrid} are copied a word at a
+ * time, and those of a {@link DirectGrid} or {@link MappedGrid} a buffer at a
+ * time, so loading or saving takes little more than the time to read or write
+ * the file.
+ */
+public final class MazeFile {
+
+    /**
+     * The version of the format written; files of later versions are not
+     * read.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header, before the cells.
+     */
+    public static final int HEADER_SIZE = 32;
+
+    private static final byte[] MAGIC = {'M', 'A', 'Z', 'E'};
+    private static final int HAS_SOLUTION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Grid grid;
+    private final Algorithm algorithm;
+    private final long seed;
+    private final SolutionPath solution;
+
+    private MazeFile(Grid grid, Algorithm algorithm, long seed, SolutionPath solution) {
+        this.grid = grid;
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.solution = solution;
+    }
+
+    /**
+     * The cells and passages of the maze.
+     *
+     * @return	the grid of the maze
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * The algorithm from which the maze was carved.
+     *
+     * @return	the algorithm, or null if unknown
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * The seed from which the maze was carved.
+     *
+     * @return	the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * The solution of the maze, if it was saved.
+     *
+     * @return	the solution, or null if it was not saved
+     */
+    public SolutionPath getSolution() {
+        return solution;
+    }
+
+    /**
+     * Save a maze to a file, replacing anything already there.
+     *
+     * @param file	the file to write
+     * @param grid	the cells and passages of the maze
+     * @param algorithm	the algorithm from which the maze was carved, or null
+     * @param seed	the seed from which the maze was carved
+     * @param solution	the solution of the maze, or null (or empty) to leave it
+     *			out
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, Grid grid, Algorithm algorithm, long seed,
+            SolutionPath solution) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(out, grid, algorithm, seed, solution);
+        }
+    }
+
+    /**
+     * Write a maze to the given channel. The channel is not closed.
+     *
+     * @param out	where the maze is written
+     * @param grid	the cells and passages of the maze
+     * @param algorithm	the algorithm from which the maze was carved, or null
+     * @param seed	the seed from which the maze was carved
+     * @param solution	the solution of the maze, or null (or empty) to leave it
+     *			out
+     * @throws IOException if the maze cannot be written
+     */
+    public static void write(WritableByteChannel out, Grid grid, Algorithm algorithm,
+            long seed, SolutionPath solution) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        final boolean hasSolution = solution != null && solution.size() > 0;
+        putHeader(buffer, grid.getCols(), grid.getRows(), algorithm, seed, hasSolution);
+        final long bytes = ((long) grid.getCols() * grid.getRows() + 3) >>> 2;
+        if (grid instanceof PackedGrid) {
+            long[] words = ((PackedGrid) grid).words();
+            long written = 0;
+            for (int i = 0; written < bytes; i++) {
+                if (buffer.remaining() < Long.BYTES) {
+                    drain(buffer, out);
+                }
+                long word = words[i];
+                if (bytes - written >= Long.BYTES) {
+                    buffer.putLong(word);
+                    written += Long.BYTES;
+                } else {
+                    for (; written < bytes; written++, word >>>= Byte.SIZE) {
+                        buffer.put((byte) word);
+                    }
+                }
+            }
+        } else if (grid instanceof BufferGrid) {
+            // already in this layout: written straight from the buffers
+            drain(buffer, out);
+            for (ByteBuffer segment : ((BufferGrid) grid).segments()) {
+                ByteBuffer cells = segment.duplicate();
+                cells.clear();
+                while (cells.hasRemaining()) {
+                    out.write(cells);
+                }
+            }
+        } else {
+            int pending = 0;
+            int pendingBits = 0;
+            for (int y = 0; y < grid.getRows(); y++) {
+                for (int x = 0; x < grid.getCols(); x++) {
+                    pending |= ((grid.isOpenEast(x, y) ? 1 : 0)
+                            | (grid.isOpenSouth(x, y) ? 2 : 0)) << pendingBits;
+                    pendingBits += 2;
+                    if (pendingBits == Byte.SIZE) {
+                        if (!buffer.hasRemaining()) {
+                            drain(buffer, out);
+                        }
+                        buffer.put((byte) pending);
+                        pending = 0;
+                        pendingBits = 0;
+                    }
+                }
+            }
+            if (pendingBits > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, out);
+                }
+                buffer.put((byte) pending);
+            }
+        }
+        if (hasSolution) {
+            if (buffer.remaining() < Integer.BYTES) {
+                drain(buffer, out);
+            }
+            buffer.putInt(solution.size());
+            for (int i = 0; i < solution.size(); i++) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain(buffer, out);
+                }
+                buffer.putInt(solution.getCell(i));
+            }
+        }
+        drain(buffer, out);
+    }
+
+    /**
+     * Write the header of a maze without a solution, for cells that will be
+     * written after it by other means, such as an
+     * {@link EllerStreamGenerator}. The channel is not closed.
+     *
+     * @param out	where the header is written
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @param algorithm	the algorithm from which the maze is carved, or null
+     * @param seed	the seed from which the maze is carved
+     * @throws IOException if the header cannot be written
+     */
+    public static void writeHeader(WritableByteChannel out, int cols, long rows,
+            Algorithm algorithm, long seed) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        putHeader(buffer, cols, rows, algorithm, seed, false);
+        drain(buffer, out);
+    }
+
+    /**
+     * Load a maze from a file.
+     *
+     * @param file	the file to read
+     * @return	the maze
+     * @throws IOException if the file cannot be read, is not a maze file, is
+     *			of a later version, holds a maze too large to load, or is
+     *			corrupt
+     */
+    public static MazeFile read(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Read a maze from the given channel. The channel is not closed.
+     *
+     * @param in	where the maze is read from
+     * @return	the maze
+     * @throws IOException if the maze cannot be read, is not in this format,
+     *			is of a later version, is too large to load, or is corrupt
+     */
+    public static MazeFile read(ReadableByteChannel in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        Header header = readHeader(in, buffer);
+        final int cols = header.cols;
+        final long rows = header.rows;
+        if (rows > Integer.MAX_VALUE) {
+            throw new IOException("Invalid maze size: " + cols + " x " + rows);
+        }
+        PackedGrid grid;
+        try {
+            grid = new PackedGrid(cols, (int) rows);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+        long[] words = grid.words();
+        long remaining = ((long) cols * rows + 3) >>> 2;
+        for (int i = 0; remaining > 0; i++) {
+            int n = (int) Math.min(Long.BYTES, remaining);
+            ensure(buffer, in, n, remaining);
+            if (n == Long.BYTES) {
+                words[i] = buffer.getLong();
+            } else {
+                long word = 0;
+                for (int shift = 0; shift < n * Byte.SIZE; shift += Byte.SIZE) {
+                    word |= (buffer.get() & 0xFFL) << shift;
+                }
+                words[i] = word;
+            }
+            remaining -= n;
+        }
+        checkEdges(grid);
+        SolutionPath solution = null;
+        if (header.hasSolution) {
+            solution = readSolution(in, buffer, grid);
+        }
+        return new MazeFile(grid, header.algorithm, header.seed, solution);
+    }
+
+    /**
+     * Read the header of a maze, leaving the buffer, which must be
+     * little-endian, with nothing left to take.
+     *
+     * @throws IOException if the header cannot be read, is not in this format,
+     *			or is of a later version
+     */
+    static Header readHeader(ReadableByteChannel in, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        buffer.limit(HEADER_SIZE);
+        fill(buffer, in);
+        buffer.flip();
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                throw new IOException("Not a maze file");
+            }
+        }
+        int version = buffer.getShort() & 0xFFFF;
+        if (version > VERSION) {
+            throw new IOException("Unsupported maze file version: " + version);
+        }
+        Header header = new Header();
+        header.hasSolution = (buffer.getShort() & HAS_SOLUTION) != 0;
+        header.cols = buffer.getInt();
+        header.rows = buffer.getLong();
+        header.seed = buffer.getLong();
+        int code = buffer.get() & 0xFF;
+        buffer.position(HEADER_SIZE);
+        if (code > Algorithm.values().length) {
+            throw new IOException("Unknown algorithm: " + code);
+        }
+        header.algorithm = code == 0 ? null : Algorithm.values()[code - 1];
+        if (header.cols < 1 || header.rows < 1) {
+            throw new IOException("Invalid maze size: " + header.cols + " x " + header.rows);
+        }
+        return header;
+    }
+
+    /**
+     * Check that no passage read from a file leads out of the maze: east from
+     * the last column or south from the last row. The solvers and renderer
+     * would follow such a passage into the next row, or past the last cell.
+     *
+     * @param grid	the cells as read
+     * @throws IOException if a passage leads out of the maze
+     */
+    static void checkEdges(Grid grid) throws IOException {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        for (int y = 0; y < rows; y++) {
+            if (grid.isOpenEast(cols - 1, y)) {
+                throw new IOException("Corrupt maze file");
+            }
+        }
+        for (int x = 0; x < cols; x++) {
+            if (grid.isOpenSouth(x, rows - 1)) {
+                throw new IOException("Corrupt maze file");
+            }
+        }
+    }
+
+    /**
+     * Read the solution that follows the cells, checking that it is a path
+     * through the maze from the entrance to the exit: each step one cell on
+     * from the last, through an open passage.
+     *
+     * @throws IOException if the solution cannot be read or is not such a
+     *			path
+     */
+    private static SolutionPath readSolution(ReadableByteChannel in, ByteBuffer buffer,
+            Grid grid) throws IOException {
+        final int cols = grid.getCols();
+        final long cells = (long) cols * grid.getRows();
+        ensure(buffer, in, Integer.BYTES, Integer.BYTES);
+        int size = buffer.getInt();
+        if (size < 1 || size > cells) {
+            throw new IOException("Invalid solution length: " + size);
+        }
+        int[] steps = new int[size];
+        for (int i = 0; i < size; i++) {
+            ensure(buffer, in, Integer.BYTES, (long) (size - i) * Integer.BYTES);
+            steps[i] = buffer.getInt();
+            if (steps[i] < 0 || steps[i] >= cells) {
+                throw new IOException("Invalid cell in solution: " + steps[i]);
+            }
+            if (i > 0 && !isPassage(grid, cols, steps[i - 1], steps[i])) {
+                throw new IOException("Invalid step in solution: " + steps[i - 1]
+                        + " to " + steps[i]);
+            }
+        }
+        if (steps[0] != 0 || steps[size - 1] != cells - 1) {
+            throw new IOException("Solution does not lead from the entrance to the exit");
+        }
+        return new SolutionPath(cols, steps);
+    }
+
+    /**
+     * Whether two cells are neighbors joined by an open passage.
+     */
+    private static boolean isPassage(Grid grid, int cols, int from, int to) {
+        int x = from % cols;
+        int y = from / cols;
+        if (to == from + cols) {
+            return grid.isOpenSouth(x, y);
+        }
+        if (to == from - cols) {
+            return grid.isOpenSouth(x, y - 1);
+        }
+        if (to == from + 1 && x + 1 < cols) {
+            return grid.isOpenEast(x, y);
+        }
+        if (to == from - 1 && x > 0) {
+            return grid.isOpenEast(x - 1, y);
+        }
+        return false;
+    }
+
+    private static void putHeader(ByteBuffer buffer, int cols, long rows,
+            Algorithm algorithm, long seed, boolean hasSolution) {
+        buffer.put(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.putShort((short) (hasSolution ? HAS_SOLUTION : 0));
+        buffer.putInt(cols);
+        buffer.putLong(rows);
+        buffer.putLong(seed);
+        buffer.put((byte) (algorithm == null ? 0 : algorithm.ordinal() + 1));
+        buffer.put(new byte[3]);
+    }
+
+    /**
+     * Make at least {@code needed} bytes ready to be taken from the buffer,
+     * reading more if there are fewer, but never more than the {@code wanted}
+     * bytes still to be taken, so nothing after the maze is read.
+     */
+    private static void ensure(ByteBuffer buffer, ReadableByteChannel in, int needed,
+            long wanted) throws IOException {
+        if (buffer.remaining() >= needed) {
+            return;
+        }
+        buffer.compact();
+        buffer.limit((int) Math.min(buffer.capacity(), wanted));
+        fill(buffer, in);
+        buffer.flip();
+    }
+
+    /**
+     * Read into the buffer until it is full to its limit.
+     *
+     * @throws EOFException if the channel ends first
+     */
+    private static void fill(ByteBuffer buffer, ReadableByteChannel in) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                throw new EOFException("Maze file ends too soon");
+            }
+        }
+    }
+
+    /**
+     * Write out everything in the buffer, leaving it empty.
+     */
+    private static void drain(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The fields of the header of a maze file.
+     */
+    static final class Header {
+
+        int cols;
+        long rows;
+        long seed;
+        Algorithm algorithm;
+        boolean hasSolution;
+
+        /**
+         * The number of bytes taken by the cells.
+         */
+        long cellBytes() {
+            return ((long) cols * rows + 3) >>> 2;
+        }
+    }
+}
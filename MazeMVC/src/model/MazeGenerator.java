@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * An algorithm for carving a perfect maze (exactly one path between any two
+ * cells) into a {@link Grid}. Each algorithm gives mazes of a different texture:
+ * long winding corridors, many short dead ends, or a bias in some direction.
+ * <p>
+ * A generator keeps its working arrays from one maze to the next, so a
+ * generator used for many mazes of the same size allocates nothing after the
+ * first. Generators are not safe for use by more than one thread. </p>
+ */
+public interface MazeGenerator {
+
+    /**
+     * Carve passages into the given maze. The maze should have all its walls
+     * in place on entry; on return every cell is reachable from every other by
+     * exactly one path.
+     *
+     * @param grid	the cells of the maze
+     * @throws IllegalArgumentException if the maze is too large for the
+     *			algorithm
+     */
+    void generate(Grid grid);
+}
@@ -1,74 +1,278 @@
 package model;
 
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
 
 /**
  * This class acts as the model for the computation of a maze, in the MVC
  * (model-view-controller) design pattern used to create this application.
+ * <p>
+ * Making a new maze only carves it. The maze is solved, and drawn for
+ * display, the first time this is asked for, so a caller that needs only the
+ * grid pays nothing for them. </p>
+ * <p>
+ * A maze too large for the heap may be kept in a file instead, as a
+ * {@link MappedGrid}; it is carved, drawn and shown in the same way, and
+ * solved if it has fewer than 2^31 cells. </p>
+ * <p>
+ * With a progress listener, making and solving a maze report how far they
+ * have got, and stop if the thread is interrupted. </p>
  *
  * @author	Nicholas Tzavaras, s02150247
  * @version	Beta, 5/3/2018
  */
 public class MazeModel {
     
-    private final int MAX_MAZE_SIZE = 25;
+    /**
+     * The most columns or rows of a maze made from the window. A maze of this
+     * size, 25 million cells, is carved and solved in a few seconds, within
+     * about 300 MB of heap, while the last one is still shown; the panel draws
+     * only the cells in view, at any size.
+     */
+    private final int MAX_MAZE_SIZE = 5_000;
 
     private int cols;
     private int rows;
-    private int[][] maze;
-    private char[][] charMaze;
-    private String[] solvedLines;
-    private final LinkedList<Point> solution;   //Save the points of solution for later when stepping through.
+    private Grid maze;
+    private SolutionPath solution;  //Cells of the solution, once solved, for stepping through.
+    private char[] blankText;       //Display characters, once drawn.
+    private char[] solvedText;
+    private final SplittableRandom seeds;    //Source of the seeds of mazes made without a given seed.
+    private final MazeSolver solver;
+    private Algorithm algorithm;
+    private long seed;
+    private final boolean offHeap;  //Whether new mazes are kept in a DirectGrid.
+    private DirectGrid directGrid;  //Kept for the next maze of the same size.
+    private IntConsumer progress;   //Told the percentage done while making or solving, or null.
 
     /**
      * Constructor.
      *
      */
     public MazeModel() {
-        solution = new LinkedList<>();
+        this(false);
+    }
+
+    /**
+     * Constructor: new mazes kept on the heap, or off it in a
+     * {@link DirectGrid}, where they add nothing to the pauses of the garbage
+     * collector. Off the heap, the grid of one maze is cleared and used again
+     * for the next of the same size, so a grid must not be kept once another
+     * maze is made.
+     *
+     * @param offHeap	whether new mazes are kept off the heap
+     */
+    public MazeModel(boolean offHeap) {
+        this.offHeap = offHeap;
+        seeds = new SplittableRandom();
+        solver = new BreadthFirstSolver();
     }
 
+    /**
+     * Make a new maze using the recursive backtracker.
+     *
+     * @param x	the number of columns
+     * @param y	the number of rows
+     */
     public void newMaze(int x, int y) {
-        maze = new int[x][y];
-        cols = x;
-        rows = y;
-        generateMaze(0, 0);
+        newMaze(x, y, Algorithm.BACKTRACKER);
+    }
+
+    /**
+     * Make a new maze using the recursive backtracker. The same seed always
+     * gives the same maze.
+     *
+     * @param x	the number of columns
+     * @param y	the number of rows
+     * @param seed	the seed for the random choices made while carving
+     */
+    public void newMaze(int x, int y, long seed) {
+        newMaze(x, y, Algorithm.BACKTRACKER, seed);
+    }
+
+    /**
+     * Make a new maze using the given algorithm.
+     *
+     * @param x	the number of columns
+     * @param y	the number of rows
+     * @param algorithm	the algorithm used to carve the maze
+     */
+    public void newMaze(int x, int y, Algorithm algorithm) {
+        newMaze(x, y, algorithm, seeds.nextLong());
+    }
+
+    /**
+     * Make a new maze using the given algorithm. The same algorithm and seed
+     * always give the same maze.
+     *
+     * @param x	the number of columns
+     * @param y	the number of rows
+     * @param algorithm	the algorithm used to carve the maze
+     * @param seed	the seed for the random choices made while carving
+     */
+    public void newMaze(int x, int y, Algorithm algorithm, long seed) {
+        setMaze(offHeap ? newDirectGrid(x, y) : new PackedGrid(x, y), algorithm, seed);
+        algorithm.newGenerator(seed).generate(monitored(maze, (long) x * y - 1));
+        done();
+    }
+
+    /**
+     * Have making and solving a maze report how far they have got: the
+     * percentage of the passages of the maze opened, while it is made, and of
+     * its cells examined, while it is solved, ending with 100 for each. While
+     * there is a listener, either of them throws a
+     * {@link java.util.concurrent.CancellationException} soon after the thread
+     * doing it is interrupted, leaving the model with no usable maze.
+     *
+     * @param progress	receives the percentage done, or null for none
+     */
+    public void setProgressListener(IntConsumer progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * The grid, watched for progress and interruption if there is a listener.
+     */
+    private Grid monitored(Grid grid, long total) {
+        return progress == null ? grid : new MonitoredGrid(grid, total, percent -> {
+            if (percent < 100) {
+                progress.accept(percent);
+            }
+        });
+    }
+
+    /**
+     * Tell the listener, if any, that the work is done.
+     */
+    private void done() {
+        if (progress != null) {
+            progress.accept(100);
+        }
+    }
+
+    /**
+     * An off-heap grid with all its walls in place: the last one, if it is
+     * the same size, since its memory is not given back until it is collected.
+     */
+    private DirectGrid newDirectGrid(int x, int y) {
+        if (directGrid != null && directGrid.getCols() == x && directGrid.getRows() == y) {
+            directGrid.clear();
+        } else {
+            directGrid = new DirectGrid(x, y);
+        }
+        return directGrid;
+    }
+
+    /**
+     * Make a new maze in a file, in the format of {@link MazeFile}, and keep it
+     * mapped from there rather than on the heap. Anything already in the file
+     * is replaced. With {@link Algorithm#ELLER} the maze is written a row at a
+     * time, needing memory for one row only, and is the same maze as
+     * {@link #newMaze(int, int, Algorithm, long)} makes; the other algorithms
+     * carve the mapped file through the heap state they always keep.
+     *
+     * @param file	the file to hold the maze
+     * @param x	the number of columns
+     * @param y	the number of rows
+     * @param algorithm	the algorithm used to carve the maze
+     * @param seed	the seed for the random choices made while carving
+     * @throws IOException if the file cannot be written or mapped
+     */
+    public void newMappedMaze(Path file, int x, int y, Algorithm algorithm, long seed)
+            throws IOException {
+        if (algorithm == Algorithm.ELLER) {
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                MazeFile.writeHeader(out, x, y, algorithm, seed);
+                new EllerStreamGenerator(new SplittableRandom(seed)).generate(x, y, out);
+            }
+            setMaze(MappedGrid.open(file, false), algorithm, seed);
+        } else {
+            MappedGrid grid = MappedGrid.create(file, x, y, algorithm, seed);
+            setMaze(grid, algorithm, seed);
+            algorithm.newGenerator(seed).generate(monitored(grid, (long) x * y - 1));
+            grid.force();
+            done();
+        }
+    }
+
+    /**
+     * Replace the maze with one in a file, mapped from there rather than
+     * loaded onto the heap. A solution saved in the file is not read; it is
+     * found again when first asked for.
+     *
+     * @param file	the file holding the maze
+     * @throws IOException if the file cannot be mapped, is not a maze file, is
+     *			of a later version, or is corrupt
+     */
+    public void openMappedMaze(Path file) throws IOException {
+        MappedGrid grid = MappedGrid.open(file, false);
+        setMaze(grid, grid.getAlgorithm(), grid.getSeed());
     }
 
     /**
-     * TODO
+     * Replace the maze, forgetting the solution and drawings of the last one,
+     * and closing its file if it was mapped.
      */
-    private void generateMaze(int x, int y) {
-        solution.clear();
-        Direction[] values = Direction.values();
-        Collections.shuffle(Arrays.asList(values));
-        for (Direction dir : values) {
-            int i = x + dir.dx;
-            int j = y + dir.dy;
-            if (between(i, cols) && between(j, rows)
-                    && (maze[i][j] == 0)) {
-                maze[x][y] |= dir.bit;
-                maze[i][j] |= dir.opposite.bit;
-                generateMaze(i, j);
+    private void setMaze(Grid grid, Algorithm algorithm, long seed) {
+        if (maze instanceof MappedGrid) {
+            try {
+                ((MappedGrid) maze).close();
+            } catch (IOException ex) {
+                // nothing is lost: its passages were written when carved
             }
         }
-        charMaze = halveMaze(getBlankMazeLines());
-        solveMaze(charMaze);
-        solvedLines = expandMaze(charMaze);
+        maze = grid;
+        cols = grid.getCols();
+        rows = grid.getRows();
+        this.algorithm = algorithm;
+        this.seed = seed;
+        solution = null;
+        blankText = null;
+        solvedText = null;
     }
     
+    /**
+     * The cells and passages of the current maze.
+     *
+     * @return the grid of the current maze, or null if no maze has been made
+     */
+    public Grid getGrid() {
+        return maze;
+    }
+
+    /**
+     * The algorithm used to carve the current maze.
+     *
+     * @return the algorithm, or null if no maze has been made, or the maze was
+     *			loaded from a file that did not record it
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * The seed from which the current maze was carved. Making a new maze with
+     * the same size, algorithm and seed reproduces it.
+     *
+     * @return the seed of the current maze
+     */
+    public long getSeed() {
+        return seed;
+    }
+
     /**
      * Returns a one dimensional array of strings, each element in the array
-     * contains one row of display characters.
+     * contains one row of display characters, with the solution drawn in.
      *
      * @return
      */
     public String[] getSolvedMazeLines(){
-        return solvedLines;
+        return toLines(getSolvedMazeText());
     }
     
     /**
@@ -78,182 +282,116 @@ public class MazeModel {
      * @return
      */
     public String[] getBlankMazeLines() {
-        ArrayList<String> mazeStrings = new ArrayList<>();
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < rows; i++) {
-            // draw the north edge
-            for (int j = 0; j < cols; j++) {
-                if (j == 0 && i ==0) {
-                    sb.append("+ * ");
-                }
-                else sb.append((maze[j][i] & 1) == 0 ? "+---" : "+   ");
-            }
-            sb.append("+");
-            mazeStrings.add(sb.toString());
-            sb.setLength(0);
-            // draw the west edge
-            for (int j = 0; j < cols; j++) {
-                sb.append((maze[j][i] & 8) == 0 ? "|   " : "    ");
-            }
-            sb.append("|");
-            mazeStrings.add(sb.toString());
-            sb.setLength(0);
-        }
-        // draw the bottom line
-        for (int j = 0; j < cols - 1; j++) {
-            sb.append("+---");
+        return toLines(getBlankMazeText());
+    }
+
+    /**
+     * The display characters of the maze, with the solution drawn in, each
+     * line ended by {@code '\n'}. The maze is solved and drawn on the first call
+     * for each maze.
+     *
+     * @return	the drawing of the maze, which must not be modified
+     */
+    public char[] getSolvedMazeText() {
+        if (solvedText == null) {
+            solvedText = MazeRenderer.render(maze, getSolution());
         }
-        sb.append("+   +");
-        mazeStrings.add(sb.toString());
-        sb.setLength(0);
-        return mazeStrings.toArray(new String[mazeStrings.size()]);
+        return solvedText;
     }
 
     /**
-     * Makes the maze half as wide. Converts each line of the maze from a String
-     * to a char[], to allow for addition of the path.
+     * The display characters of the maze, each line ended by {@code '\n'}. The
+     * maze is drawn on the first call for each maze.
+     *
+     * @return	the drawing of the maze, which must not be modified
      */
-    private char[][] halveMaze(String[] lines) {
-        final int width = (lines[0].length() + 1) / 2;
-        char[][] c = new char[lines.length][width];
-        for (int i = 0; i < lines.length; i++) {
-            for (int j = 0; j < width; j++) {
-                c[i][j] = lines[i].charAt(j * 2);
-            }
+    public char[] getBlankMazeText() {
+        if (blankText == null) {
+            blankText = MazeRenderer.render(maze, null);
         }
-        return c;
+        return blankText;
     }
 
     /**
-     * Solve the maze and draw the solution if possible.
+     * Write the display characters of the maze, each line ended by
+     * {@code '\n'}, a part of a line at a time, without building the whole
+     * drawing in memory. The destination is not flushed or closed.
      *
-     * @param maze
+     * @param out	where the maze is written
+     * @param solved	whether the solution is drawn in
+     * @throws IOException if the maze cannot be written
      */
-    private void solveMaze(char[][] maze) {
-        solveRecursively(maze, maze[0].length - 2, maze.length - 2, Direction.S);
+    public void writeMaze(Appendable out, boolean solved) throws IOException {
+        MazeRenderer.render(maze, solved ? getSolution() : null, out);
     }
 
     /**
-     * Return true if solvable, and draw the solution if so.
+     * Save the maze, with its algorithm and seed, to a file in the binary
+     * format of {@link MazeFile}, replacing anything already there.
+     *
+     * @param file	the file to write
+     * @param withSolution	whether the solution is saved too
+     * @throws IOException if the file cannot be written
      */
-    private boolean solveRecursively(char[][] maze,
-            int x, int y, Direction d) {
-        boolean solved = false;
-        for (Direction direction : Direction.values()) {
-            if (solved)  break;
-            if (direction != d) {
-                switch (direction) {
-                    // 0 = up, 1 = right, 2 = down, 3 = left
-                    case N:
-                        if (maze[y - 1][x] == ' ') {
-                            solved = solveRecursively(maze, x, y - 2, Direction.S);
-                        }
-                        break;
-                    case E:
-                        if (maze[y][x + 1] == ' ') {
-                            solved = solveRecursively(maze, x + 2, y, Direction.W);
-                        }
-                        break;
-                    case S:
-                        if (maze[y + 1][x] == ' ') {
-                            solved = solveRecursively(maze, x, y + 2, Direction.N);
-                        }
-                        break;
-                    case W:
-                        if (maze[y][x - 1] == ' ') {
-                            solved = solveRecursively(maze, x - 2, y, Direction.E);
-                        }
-                        break;
-                }
-            }
-        }
-        // Base Case
-        if (x == 1 && y == 1) {
-            solved = true;
-        }
-        /**
-         * If we have a solution, draw it as it works backwards. Save the points
-         * of solution for later when stepping through.
-         */
-        if (solved) {
-            maze[y][x] = '*';
-            switch (d) {
-                case N:
-                    maze[y - 1][x] = '*';
-                    solution.addLast(new Point(y - 1, x));
-                    break;
-                case E:
-                    maze[y][x + 1] = '*';
-                    solution.addLast(new Point(y, x + 1));
-                    break;
-                case S:
-                    maze[y + 1][x] = '*';
-                    solution.addLast(new Point(y + 1, x));
-                    break;
-                case W:
-                    maze[y][x - 1] = '*';
-                    solution.addLast(new Point(y, x - 1));
-                    break;
-            }
+    public void saveMaze(Path file, boolean withSolution) throws IOException {
+        MazeFile.write(file, maze, algorithm, seed, withSolution ? getSolution() : null);
+    }
+
+    /**
+     * Replace the maze with one saved by {@link #saveMaze}. If its solution
+     * was not saved, it is found when first asked for.
+     *
+     * @param file	the file to read
+     * @throws IOException if the file cannot be read, is not a maze file, or
+     *			is corrupt
+     */
+    public void loadMaze(Path file) throws IOException {
+        MazeFile loaded = MazeFile.read(file);
+        setMaze(loaded.getGrid(), loaded.getAlgorithm(), loaded.getSeed());
+        solution = loaded.getSolution();
+    }
+
+    /**
+     * The path from the entrance (the top left cell) to the exit (the bottom
+     * right cell), for stepping through. The maze is solved on the first call
+     * for each maze. A maze loaded from a file may have no such path, and is
+     * then left unsolved.
+     *
+     * @return	the solution of the current maze, which must not be modified;
+     *			empty if the exit cannot be reached
+     * @throws IllegalArgumentException if the maze has too many cells to solve
+     */
+    public SolutionPath getSolution() {
+        if (solution == null) {
+            int cells = Grids.cellCount(maze);
+            int[] path = solver.solve(monitored(maze, cells), 0, cells - 1);
+            solution = path == null ? new SolutionPath(cols) : new SolutionPath(cols, path);
+            done();
         }
-        return solved;
+        return solution;
     }
 
     /**
-     * Converts each line from char[] back to String. Reverts the maze to look
-     * appealing after it was halved.
+     * Splits a drawing of the maze into its lines, without the {@code '\n'}s.
      */
-    public String[] expandMaze(char[][] maze) {
-        char[] tmp = new char[3];
-        String[] lines = new String[maze.length];
-        for (int i = 0; i < maze.length; i++) {
-            StringBuilder sb = new StringBuilder(maze[i].length * 2);
-            for (int j = 0; j < maze[i].length; j++) {
-                if (j % 2 == 0) {
-                    sb.append(maze[i][j]);
-                } else {
-                    tmp[0] = tmp[1] = tmp[2] = maze[i][j];
-                    if (tmp[1] == '*') {
-                        tmp[0] = tmp[2] = ' ';
-                    }
-                    sb.append(tmp);
-                }
-            }
-            lines[i] = sb.toString();
+    private String[] toLines(char[] text) {
+        final int width = MazeRenderer.lineLength(cols);
+        String[] lines = new String[2 * rows + 1];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = new String(text, i * width, width - 1);
         }
         return lines;
     }
 
-    private boolean between(int v, int upper) {
-        return (v >= 0) && (v < upper);
-    }
-    
+    /**
+     * The most columns or rows of a maze to be made from the window.
+     *
+     * @return	the largest number of columns or rows
+     */
     public int getMaxMazeSize(){
         return MAX_MAZE_SIZE;
     }
 
-    private static enum Direction {
-        N(1, 0, -1), S(2, 0, 1), E(4, 1, 0), W(8, -1, 0);
-        // use the static initializer to resolve forward references
-        static {
-            N.opposite = S;
-            S.opposite = N;
-            E.opposite = W;
-            W.opposite = E;
-        }
-        
-        final int bit;
-        final int dx;
-        final int dy;
-        Direction opposite;
-
-        Direction(int bit, int dx, int dy) {
-            this.bit = bit;
-            this.dx = dx;
-            this.dy = dy;
-        }
-    };
-
 //    /**
 //     * Main entry point: for testing of the model.
 //     *
@@ -0,0 +1,335 @@
+package model;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Draws a maze as text, with or without its solution. Each cell is four
+ * characters wide and two lines high, counting the wall to its west and the
+ * wall to its north:
+ * <pre>
+ * + * +---+
+ * |     * |
+ * +   + * +
+ * | *   * |
+ * +---+ * +
+ * </pre>
+ * The whole maze is written in one pass into a single array of characters,
+ * {@code 2 * rows + 1} lines of {@code 4 * cols + 1} characters each, every line
+ * ended by {@code '\n'}. The solution is then drawn over the walls, changing
+ * only the characters along the path, so no intermediate lines are made.
+ * <p>
+ * A maze too large to hold as text may instead be written to a
+ * {@code Writer} or channel, a part of a line at a time through a buffer of a
+ * few kilobytes. The openings along the solution are first marked in two bits
+ * per cell, so each part can be drawn complete as it is reached. </p>
+ */
+public final class MazeRenderer {
+
+    /**
+     * The mark drawn in each cell and opening along the solution.
+     */
+    static final char PATH = '*';
+
+    /**
+     * The number of cells drawn at a time when streaming, so that the buffer
+     * is a few kilobytes however wide the maze.
+     */
+    private static final int CHUNK_CELLS = 1024;
+
+    /**
+     * The most characters drawn at a time when streaming: four for each cell
+     * and two to end the line.
+     */
+    private static final int CHUNK_LENGTH = 4 * CHUNK_CELLS + 2;
+
+    /**
+     * Constructor: private to prevent instantiation
+     */
+    private MazeRenderer() {}
+
+    /**
+     * The number of characters in each line of the drawing of a maze,
+     * including the {@code '\n'} that ends it.
+     *
+     * @param cols	the number of columns of the maze
+     * @return	the length of a line
+     */
+    public static int lineLength(int cols) {
+        return 4 * cols + 2;
+    }
+
+    /**
+     * The number of characters in the drawing of a maze.
+     *
+     * @param grid	the maze
+     * @return	the length of the drawing
+     * @throws IllegalArgumentException if the drawing would be too large for
+     *			an array
+     */
+    public static int length(Grid grid) {
+        long length = (2L * grid.getRows() + 1) * (4L * grid.getCols() + 2);
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large to draw: "
+                    + grid.getCols() + " x " + grid.getRows());
+        }
+        return (int) length;
+    }
+
+    /**
+     * Draw a maze, with its solution if one is given.
+     *
+     * @param grid	the maze
+     * @param solution	the solution to draw, or null for none
+     * @return	the drawing, lines ended by {@code '\n'}
+     * @throws IllegalArgumentException if the drawing would be too large for
+     *			an array
+     */
+    public static char[] render(Grid grid, SolutionPath solution) {
+        char[] text = new char[length(grid)];
+        render(grid, solution, text);
+        return text;
+    }
+
+    /**
+     * Draw a maze into the given array, with its solution if one is given, so
+     * the same array may be used for many mazes of the same size.
+     *
+     * @param grid	the maze
+     * @param solution	the solution to draw, or null for none
+     * @param text	the array to draw into, at least {@link #length} long
+     * @throws IllegalArgumentException if the array is too short
+     */
+    public static void render(Grid grid, SolutionPath solution, char[] text) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        if (text.length < length(grid)) {
+            throw new IllegalArgumentException("Array too short: " + text.length);
+        }
+        int offset = 0;
+        for (int y = 0; y <= rows; y++) {
+            offset = drawCells(grid, null, null, y, true, 0, cols, text, offset);
+            if (y < rows) {
+                offset = drawCells(grid, null, null, y, false, 0, cols, text, offset);
+            }
+        }
+        if (solution != null) {
+            drawSolution(solution, lineLength(cols), text);
+        }
+    }
+
+    /**
+     * Draw a maze to the given destination, with its solution if one is given,
+     * a part of a line at a time. Only a few kilobytes are needed however large
+     * the maze, plus two bits per cell to mark the solution. The destination
+     * is not flushed or closed.
+     *
+     * @param grid	the maze
+     * @param solution	the solution to draw, or null for none
+     * @param out	where the drawing is written
+     * @throws IOException if the drawing cannot be written
+     */
+    public static void render(Grid grid, SolutionPath solution, Appendable out)
+            throws IOException {
+        if (out instanceof Writer) {
+            Writer writer = (Writer) out;
+            render(grid, solution, (chars, count) -> writer.write(chars, 0, count));
+        } else {
+            render(grid, solution, (chars, count) -> out.append(CharBuffer.wrap(chars, 0, count)));
+        }
+    }
+
+    /**
+     * Draw a maze to the given channel, one byte per character, with its
+     * solution if one is given, a part of a line at a time. Only a few
+     * kilobytes are needed however large the maze, plus two bits per cell to
+     * mark the solution. The channel is not closed.
+     *
+     * @param grid	the maze
+     * @param solution	the solution to draw, or null for none
+     * @param out	where the drawing is written
+     * @throws IOException if the drawing cannot be written
+     */
+    public static void render(Grid grid, SolutionPath solution, WritableByteChannel out)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_LENGTH);
+        render(grid, solution, (chars, count) -> {
+            for (int i = 0; i < count; i++) {
+                buffer.put((byte) chars[i]);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        });
+    }
+
+    /**
+     * Draw a maze a part of a line at a time, passing each part on as it is
+     * drawn.
+     */
+    private static void render(Grid grid, SolutionPath solution, Sink sink)
+            throws IOException {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        long[] east = null;
+        long[] south = null;
+        if (solution != null) {
+            int cells = Grids.cellCount(grid);
+            east = BitSets.create(cells);
+            south = BitSets.create(cells);
+            markSolution(solution, cols, east, south);
+        }
+        char[] chunk = new char[CHUNK_LENGTH];
+        for (int y = 0; y <= rows; y++) {
+            for (int wall = 0; wall < (y < rows ? 2 : 1); wall++) {
+                for (int from = 0; from < cols; from += CHUNK_CELLS) {
+                    int to = Math.min(cols, from + CHUNK_CELLS);
+                    sink.write(chunk, drawCells(grid, east, south, y, wall == 0,
+                            from, to, chunk, 0));
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw some of the cells of one line of the maze, ending the line if they
+     * include the last cell. The solution is drawn if it has been marked.
+     *
+     * @param east	the cells whose opening to the east is on the solution,
+     *			or null if the solution is not to be drawn
+     * @param south	the cells whose opening to the south is on the solution,
+     *			or null if the solution is not to be drawn
+     * @param y	the row
+     * @param wall	true for the line of the wall to the north of the row
+     *			(or the bottom wall, if {@code y} is the number of rows), false
+     *			for the line of the cells of the row
+     * @param from	the first cell drawn
+     * @param to	one past the last cell drawn
+     * @param text	the array to draw into
+     * @param offset	the place of the first character drawn
+     * @return	the place after the last character drawn
+     */
+    private static int drawCells(Grid grid, long[] east, long[] south, int y, boolean wall,
+            int from, int to, char[] text, int offset) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final boolean marked = east != null;
+        int i = offset;
+        if (wall) {
+            // the wall to the north of row y; the entrance is above the first
+            // cell and the exit below the last
+            for (int x = from; x < to; x++) {
+                text[i++] = '+';
+                char c;
+                if (y == 0) {
+                    c = x == 0 ? PATH : '-';
+                } else if (y == rows ? x == cols - 1 : grid.isOpenSouth(x, y - 1)) {
+                    c = marked && BitSets.get(south, (y - 1) * cols + x) ? PATH : ' ';
+                } else {
+                    c = '-';
+                }
+                if (c == PATH) {
+                    text[i++] = ' ';
+                    text[i++] = PATH;
+                    text[i++] = ' ';
+                } else {
+                    text[i++] = c;
+                    text[i++] = c;
+                    text[i++] = c;
+                }
+            }
+            if (to == cols) {
+                text[i++] = '+';
+            }
+        } else {
+            // the cells of row y, with the wall to the west of each
+            final int row = y * cols;
+            for (int x = from; x < to; x++) {
+                if (x == 0 || !grid.isOpenEast(x - 1, y)) {
+                    text[i++] = '|';
+                } else {
+                    text[i++] = marked && BitSets.get(east, row + x - 1) ? PATH : ' ';
+                }
+                text[i++] = ' ';
+                text[i++] = marked && onSolution(east, south, cols, x, y) ? PATH : ' ';
+                text[i++] = ' ';
+            }
+            if (to == cols) {
+                text[i++] = '|';
+            }
+        }
+        if (to == cols) {
+            text[i++] = '\n';
+        }
+        return i;
+    }
+
+    /**
+     * Mark the openings along the solution, including the exit below the last
+     * cell.
+     */
+    private static void markSolution(SolutionPath solution, int cols, long[] east, long[] south) {
+        for (int i = 0; i < solution.size(); i++) {
+            int cell = solution.getCell(i);
+            switch (solution.getDirection(i)) {
+                case N:
+                    BitSets.set(south, cell - cols);
+                    break;
+                case S:
+                    BitSets.set(south, cell);
+                    break;
+                case E:
+                    BitSets.set(east, cell);
+                    break;
+                case W:
+                    BitSets.set(east, cell - 1);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Whether a cell is on the solution: every cell on it has an opening on it,
+     * at least the one to the next cell, or the exit.
+     */
+    private static boolean onSolution(long[] east, long[] south, int cols, int x, int y) {
+        int cell = y * cols + x;
+        return BitSets.get(east, cell) || BitSets.get(south, cell)
+                || (x > 0 && BitSets.get(east, cell - 1))
+                || (y > 0 && BitSets.get(south, cell - cols));
+    }
+
+    /**
+     * Mark each cell of the solution, and the opening from it to the next
+     * cell, or out through the exit below the last.
+     */
+    private static void drawSolution(SolutionPath solution, int width, char[] text) {
+        for (int i = 0; i < solution.size(); i++) {
+            int x = solution.getX(i);
+            int y = solution.getY(i);
+            int center = (2 * y + 1) * width + 4 * x + 2;
+            text[center] = PATH;
+            if (i + 1 == solution.size()) {
+                text[center + width] = PATH;
+                continue;
+            }
+            int dx = solution.getX(i + 1) - x;
+            int dy = solution.getY(i + 1) - y;
+            text[center + dy * width + dx * 2] = PATH;
+        }
+    }
+
+    /**
+     * Where the parts of a drawing are passed as they are drawn.
+     */
+    @FunctionalInterface
+    private interface Sink {
+
+        void write(char[] chars, int count) throws IOException;
+    }
+}
@@ -0,0 +1,36 @@
+package model;
+
+/**
+ * An algorithm for finding the path between two cells of a maze. Solvers work
+ * directly on the passages of a {@link Grid}, and give the path as the indices
+ * ({@code y * cols + x}) of the cells along it.
+ * <p>
+ * A solver keeps its working arrays from one maze to the next, so solving many
+ * mazes of the same size allocates little more than the paths. Solvers are not
+ * safe for use by more than one thread. </p>
+ */
+public interface MazeSolver {
+
+    /**
+     * Find a shortest path from one cell to another. In a perfect maze this is
+     * the only path.
+     *
+     * @param grid	the maze
+     * @param start	the index of the cell where the path begins
+     * @param goal	the index of the cell where the path ends
+     * @return	the indices of the cells along the path, from {@code start} to
+     *			{@code goal} inclusive, or null if there is no path
+     * @throws IllegalArgumentException if the maze has more cells than can be
+     *			indexed by an {@code int}
+     */
+    int[] solve(Grid grid, int start, int goal);
+
+    /**
+     * The number of cells expanded (taken from the queue and their neighbors
+     * examined) by the last call of {@code solve}, as a measure of the work it
+     * did.
+     *
+     * @return	the number of cells expanded
+     */
+    int getNodesExpanded();
+}
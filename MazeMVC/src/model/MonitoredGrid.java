@@ -0,0 +1,103 @@
+package model;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link Grid} that passes everything on to another, counting as it goes the
+ * passages opened, while a maze is carved, or the cells whose passages are
+ * read, while it is solved. Every few thousand of these it reports how far the
+ * work has got and, if the thread has been interrupted, stops it, so that the
+ * making and solving of a large maze can be followed and cancelled without the
+ * generators and solvers knowing.
+ */
+final class MonitoredGrid implements Grid {
+
+    /**
+     * The number of counted calls between reports; a power of two.
+     */
+    private static final int INTERVAL = 1 << 12;
+
+    private final Grid grid;
+    private final long total;
+    private final IntConsumer progress;
+    private long count;
+    private int percent;
+
+    /**
+     * Constructor.
+     *
+     * @param grid	the grid to which everything is passed on
+     * @param total	the number of counted calls expected for all the work
+     * @param progress	receives the percentage of the work done, each time it
+     *			changes
+     */
+    MonitoredGrid(Grid grid, long total, IntConsumer progress) {
+        this.grid = grid;
+        this.total = Math.max(total, 1);
+        this.progress = progress;
+    }
+
+    /**
+     * Count a call and, every so often, report the progress made.
+     *
+     * @throws CancellationException if the thread has been interrupted
+     */
+    private void count() {
+        if ((++count & (INTERVAL - 1)) != 0) {
+            return;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Interrupted");
+        }
+        int now = (int) Math.min(100, count * 100 / total);
+        if (now != percent) {
+            percent = now;
+            progress.accept(now);
+        }
+    }
+
+    @Override
+    public int getCols() {
+        return grid.getCols();
+    }
+
+    @Override
+    public int getRows() {
+        return grid.getRows();
+    }
+
+    @Override
+    public boolean isOpenEast(int x, int y) {
+        return grid.isOpenEast(x, y);
+    }
+
+    @Override
+    public boolean isOpenSouth(int x, int y) {
+        return grid.isOpenSouth(x, y);
+    }
+
+    @Override
+    public void openEast(int x, int y) {
+        count();
+        grid.openEast(x, y);
+    }
+
+    @Override
+    public void openSouth(int x, int y) {
+        count();
+        grid.openSouth(x, y);
+    }
+
+    @Override
+    public int getPassages(int x, int y) {
+        count();
+        return grid.getPassages(x, y);
+    }
+
+    @Override
+    public void carve(int x, int y, Direction dir) {
+        count();
+        grid.carve(x, y, dir);
+    }
+}
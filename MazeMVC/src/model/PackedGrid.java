@@ -0,0 +1,114 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Grid} kept in a {@code long[]} with two bits per cell (open east and
+ * open south), thirty-two cells to a word, in row order. A maze of 20,000 by
+ * 20,000 cells takes 100 MB.
+ */
+public class PackedGrid implements Grid {
+
+    private static final int EAST = 1;
+    private static final int SOUTH = 2;
+
+    private final int cols;
+    private final int rows;
+    private final long[] words;
+
+    /**
+     * Constructor: a maze with all its walls in place.
+     *
+     * @param cols	the number of columns
+     * @param rows	the number of rows
+     * @throws IllegalArgumentException if either dimension is not positive, or
+     *			the maze is too large to be held in one array
+     */
+    public PackedGrid(int cols, int rows) {
+        if (cols < 1 || rows < 1) {
+            throw new IllegalArgumentException("Invalid maze size: " + cols + " x " + rows);
+        }
+        long size = ((long) cols * rows + 31) >>> 5;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze too large: " + cols + " x " + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.words = new long[(int) size];
+    }
+
+    /**
+     * Put back all the walls, so the grid can be used for another maze of the
+     * same size.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * The words holding the cells, for copying the whole maze at once; in
+     * the same layout as the output of {@link EllerStreamGenerator} when
+     * written in little-endian order.
+     */
+    long[] words() {
+        return words;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public boolean isOpenEast(int x, int y) {
+        return (bits(x, y) & EAST) != 0;
+    }
+
+    @Override
+    public boolean isOpenSouth(int x, int y) {
+        return (bits(x, y) & SOUTH) != 0;
+    }
+
+    @Override
+    public void openEast(int x, int y) {
+        set(x, y, EAST);
+    }
+
+    @Override
+    public void openSouth(int x, int y) {
+        set(x, y, SOUTH);
+    }
+
+    @Override
+    public int getPassages(int x, int y) {
+        long cell = (long) y * cols + x;
+        int own = bits(cell);
+        int passages = ((own & EAST) != 0 ? Direction.E.bit : 0)
+                | ((own & SOUTH) != 0 ? Direction.S.bit : 0);
+        if (x > 0 && (bits(cell - 1) & EAST) != 0) {
+            passages |= Direction.W.bit;
+        }
+        if (y > 0 && (bits(cell - cols) & SOUTH) != 0) {
+            passages |= Direction.N.bit;
+        }
+        return passages;
+    }
+
+    private int bits(int x, int y) {
+        return bits((long) y * cols + x);
+    }
+
+    private int bits(long cell) {
+        return (int) (words[(int) (cell >>> 5)] >>> ((cell & 31) << 1)) & 3;
+    }
+
+    private void set(int x, int y, int bit) {
+        long cell = (long) y * cols + x;
+        words[(int) (cell >>> 5)] |= (long) bit << ((cell & 31) << 1);
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using randomized Prim's algorithm. The maze grows
+ * from a random cell; at each step a random cell of the frontier (cells next to
+ * the maze but not in it) is joined to a random neighbor already in the maze.
+ * <p>
+ * Mazes have many short dead ends radiating from the starting cell. Time is
+ * O(n) for n cells; memory is two bits per cell plus the frontier, up to four
+ * bytes per cell. </p>
+ */
+public class PrimGenerator implements MazeGenerator {
+
+    private final SplittableRandom random;
+
+    private long[] inMaze;
+    private long[] inFrontier;
+    private int[] frontier;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public PrimGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int cells = Grids.cellCount(grid);
+        long[] inMaze = this.inMaze = BitSets.reuse(this.inMaze, cells);
+        long[] inFrontier = this.inFrontier = BitSets.reuse(this.inFrontier, cells);
+        if (this.frontier == null || this.frontier.length < cells) {
+            this.frontier = new int[cells];
+        }
+        int[] frontier = this.frontier;
+        int start = random.nextInt(cells);
+        BitSets.set(inMaze, start);
+        int size = addFrontier(start, cols, rows, inMaze, inFrontier, frontier, 0);
+        while (size > 0) {
+            int r = random.nextInt(size);
+            int cell = frontier[r];
+            frontier[r] = frontier[--size];
+            int x = cell % cols;
+            int y = cell / cols;
+            for (Direction dir : Direction.randomOrder(random)) {
+                int i = x + dir.dx;
+                int j = y + dir.dy;
+                if (i >= 0 && i < cols && j >= 0 && j < rows
+                        && BitSets.get(inMaze, j * cols + i)) {
+                    grid.carve(x, y, dir);
+                    break;
+                }
+            }
+            BitSets.set(inMaze, cell);
+            size = addFrontier(cell, cols, rows, inMaze, inFrontier, frontier, size);
+        }
+    }
+
+    /**
+     * Add the neighbors of a cell that are neither in the maze nor already in
+     * the frontier to the frontier, returning the new size of the frontier.
+     */
+    private static int addFrontier(int cell, int cols, int rows,
+            long[] inMaze, long[] inFrontier, int[] frontier, int size) {
+        int x = cell % cols;
+        int y = cell / cols;
+        for (Direction dir : Direction.ALL) {
+            int i = x + dir.dx;
+            int j = y + dir.dy;
+            if (i >= 0 && i < cols && j >= 0 && j < rows) {
+                int next = j * cols + i;
+                if (!BitSets.get(inMaze, next) && !BitSets.get(inFrontier, next)) {
+                    BitSets.set(inFrontier, next);
+                    frontier[size++] = next;
+                }
+            }
+        }
+        return size;
+    }
+}
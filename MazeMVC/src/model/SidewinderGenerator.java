@@ -0,0 +1,48 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using the sidewinder algorithm. The top row is a
+ * single corridor. In each following row, cells are grouped into runs by
+ * randomly opening walls to the east; when a run ends, one of its cells is
+ * chosen at random and opened to the north.
+ * <p>
+ * Mazes have a vertical bias, and the top row is always clear. Time is O(n) for
+ * n cells; no memory is needed beyond the maze itself, and any number of rows
+ * can be generated. </p>
+ */
+public class SidewinderGenerator implements MazeGenerator {
+
+    private final SplittableRandom random;
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public SidewinderGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        for (int x = 0; x < cols - 1; x++) {
+            grid.openEast(x, 0);
+        }
+        for (int y = 1; y < rows; y++) {
+            int runStart = 0;
+            for (int x = 0; x < cols; x++) {
+                if (x < cols - 1 && random.nextBoolean()) {
+                    grid.openEast(x, y);
+                } else {
+                    int north = runStart + random.nextInt(x - runStart + 1);
+                    grid.openSouth(north, y - 1);
+                    runStart = x + 1;
+                }
+            }
+        }
+    }
+}
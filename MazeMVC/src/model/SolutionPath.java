@@ -0,0 +1,209 @@
+package model;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * The solution of a maze, as the cells along the path from the entrance to the
+ * exit. Each step is kept as the index ({@code y * cols + x}) of its cell in a
+ * growable array of {@code int}s, four bytes per step, so a long path costs a
+ * small fraction of a list of points and nothing from AWT is needed.
+ * <p>
+ * Steps may be visited in order by the iterator, or taken in any order by
+ * their number, for stepping back and forth through the solution. </p>
+ */
+public final class SolutionPath implements Iterable<Integer> {
+
+    /**
+     * Initial capacity of an empty path; it grows as steps are added.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int cols;
+    private int[] cells;
+    private int size;
+
+    /**
+     * Constructor: an empty path.
+     *
+     * @param cols	the number of columns of the maze
+     */
+    public SolutionPath(int cols) {
+        this(cols, new int[INITIAL_CAPACITY], 0);
+    }
+
+    /**
+     * Constructor: the path through the given cells, as found by a
+     * {@link MazeSolver}. The array is kept rather than copied.
+     *
+     * @param cols	the number of columns of the maze
+     * @param cells	the indices of the cells along the path
+     */
+    SolutionPath(int cols, int[] cells) {
+        this(cols, cells, cells.length);
+    }
+
+    private SolutionPath(int cols, int[] cells, int size) {
+        if (cols < 1) {
+            throw new IllegalArgumentException("Invalid number of columns: " + cols);
+        }
+        this.cols = cols;
+        this.cells = cells;
+        this.size = size;
+    }
+
+    /**
+     * Add a step to the end of the path.
+     *
+     * @param x	the column of the cell
+     * @param y	the row of the cell
+     */
+    public void add(int x, int y) {
+        add(y * cols + x);
+    }
+
+    /**
+     * Add a step to the end of the path.
+     *
+     * @param cell	the index of the cell
+     */
+    public void add(int cell) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+        }
+        cells[size++] = cell;
+    }
+
+    /**
+     * Remove all the steps, keeping the space they took for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * The number of steps, counting the entrance and the exit.
+     *
+     * @return	the number of steps
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Whether the path has no steps.
+     *
+     * @return	true if there are no steps
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The cell of a step.
+     *
+     * @param step	the number of the step, from 0 at the entrance
+     * @return	the index ({@code y * cols + x}) of the cell
+     * @throws IndexOutOfBoundsException if there is no such step
+     */
+    public int getCell(int step) {
+        if (step < 0 || step >= size) {
+            throw new IndexOutOfBoundsException("Step: " + step + ", size: " + size);
+        }
+        return cells[step];
+    }
+
+    /**
+     * The column of the cell of a step.
+     *
+     * @param step	the number of the step, from 0 at the entrance
+     * @return	the column
+     * @throws IndexOutOfBoundsException if there is no such step
+     */
+    public int getX(int step) {
+        return getCell(step) % cols;
+    }
+
+    /**
+     * The row of the cell of a step.
+     *
+     * @param step	the number of the step, from 0 at the entrance
+     * @return	the row
+     * @throws IndexOutOfBoundsException if there is no such step
+     */
+    public int getY(int step) {
+        return getCell(step) / cols;
+    }
+
+    /**
+     * The direction in which the path leaves the cell of a step: toward the
+     * cell of the next step, or, from the last step, south through the exit.
+     *
+     * @param step	the number of the step, from 0 at the entrance
+     * @return	the direction to the next step
+     * @throws IndexOutOfBoundsException if there is no such step
+     */
+    public Direction getDirection(int step) {
+        int cell = getCell(step);
+        if (step + 1 == size) {
+            return Direction.S;
+        }
+        // checked north and south first, since with one column they are also
+        // one cell before or after
+        int next = cells[step + 1];
+        if (next == cell + cols) {
+            return Direction.S;
+        } else if (next == cell - cols) {
+            return Direction.N;
+        } else if (next == cell + 1) {
+            return Direction.E;
+        }
+        return Direction.W;
+    }
+
+    /**
+     * The number of columns of the maze, by which cell indices are divided
+     * into columns and rows.
+     *
+     * @return	the number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * The cells of all the steps, in order.
+     *
+     * @return	a new array of the indices of the cells
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(cells, size);
+    }
+
+    /**
+     * The cells of the steps, in order, without boxing when taken by
+     * {@code nextInt}.
+     *
+     * @return	an iterator over the indices of the cells
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return cells[next++];
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates a large perfect maze in parallel. The maze is divided into square
+ * tiles, and a perfect maze is carved into each tile, using any of the
+ * {@link Algorithm}s, as a separate task in a {@code ForkJoinPool}. The tiles are
+ * then joined by opening one passage across each edge of a random spanning tree
+ * of the tiles, so the whole is still a perfect maze.
+ * <p>
+ * Each tile draws its random numbers from its own {@link SplittableRandom},
+ * split from the one given in tile order before any task starts, so the same
+ * seed gives the same maze however the tasks are scheduled. </p>
+ * <p>
+ * Tiles are carved into grids of their own and copied into the maze afterward,
+ * one band of tiles per task. Bands next to each other are never copied at the
+ * same time, since a {@link PackedGrid} keeps the end of one row and the start of
+ * the next in the same word. Time is that of the chosen algorithm divided among
+ * the threads of the pool, plus O(n) for the copy; memory is that of the chosen
+ * algorithm for one tile per thread, plus a second copy of the maze. The tile
+ * edges that are not part of the spanning tree are unbroken walls, which can be
+ * seen in the texture of the maze. </p>
+ */
+public class TiledGenerator implements MazeGenerator {
+
+    /**
+     * The width and height of a tile, unless another is given.
+     */
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    /**
+     * The smallest tile allowed, so that tiles in different bands never share
+     * a word of a {@link PackedGrid}.
+     */
+    private static final int MIN_TILE_SIZE = 32;
+
+    private final Algorithm algorithm;
+    private final SplittableRandom random;
+    private final int tileSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor: tiles of the default size, carved in the common pool.
+     *
+     * @param algorithm	the algorithm used to carve each tile
+     * @param random	source of the random choices made while carving
+     */
+    public TiledGenerator(Algorithm algorithm, SplittableRandom random) {
+        this(algorithm, random, DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param algorithm	the algorithm used to carve each tile
+     * @param random	source of the random choices made while carving
+     * @param tileSize	the width and height of a tile, at least 32
+     * @param pool	the pool in which the tiles are carved
+     * @throws IllegalArgumentException if the tile size is too small
+     */
+    public TiledGenerator(Algorithm algorithm, SplittableRandom random,
+            int tileSize, ForkJoinPool pool) {
+        if (tileSize < MIN_TILE_SIZE) {
+            throw new IllegalArgumentException("Tile size too small: " + tileSize);
+        }
+        this.algorithm = algorithm;
+        this.random = random;
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int tilesX = (cols + tileSize - 1) / tileSize;
+        final int tilesY = (rows + tileSize - 1) / tileSize;
+        if (tilesX == 1 && tilesY == 1) {
+            algorithm.newGenerator(random).generate(grid);
+            return;
+        }
+        final int tiles = tilesX * tilesY;
+        final SplittableRandom[] randoms = new SplittableRandom[tiles];
+        for (int t = 0; t < tiles; t++) {
+            randoms[t] = random.split();
+        }
+        final PackedGrid[] parts = new PackedGrid[tiles];
+        pool.invoke(new ForEach(0, tiles, t -> {
+            int x0 = (t % tilesX) * tileSize;
+            int y0 = (t / tilesX) * tileSize;
+            parts[t] = new PackedGrid(Math.min(tileSize, cols - x0),
+                    Math.min(tileSize, rows - y0));
+            algorithm.newGenerator(randoms[t]).generate(parts[t]);
+        }));
+        for (int parity = 0; parity < 2; parity++) {
+            final int first = parity;
+            pool.invoke(new ForEach(0, (tilesY - first + 1) / 2, b -> {
+                int ty = 2 * b + first;
+                for (int tx = 0; tx < tilesX; tx++) {
+                    PackedGrid part = parts[ty * tilesX + tx];
+                    copy(part, grid, tx * tileSize, ty * tileSize);
+                    parts[ty * tilesX + tx] = null;
+                }
+            }));
+        }
+        join(grid, tilesX, tilesY);
+    }
+
+    /**
+     * Copy the passages of a tile into the maze, at the given position.
+     */
+    private static void copy(PackedGrid part, Grid grid, int x0, int y0) {
+        for (int j = 0; j < part.getRows(); j++) {
+            for (int i = 0; i < part.getCols(); i++) {
+                if (part.isOpenEast(i, j)) {
+                    grid.openEast(x0 + i, y0 + j);
+                }
+                if (part.isOpenSouth(i, j)) {
+                    grid.openSouth(x0 + i, y0 + j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Join the tiles by a random spanning tree (Kruskal's algorithm on the
+     * tiles), opening a passage at a random place along each edge of the tree.
+     */
+    private void join(Grid grid, int tilesX, int tilesY) {
+        final int tiles = tilesX * tilesY;
+        /* An edge is the tile index times two, plus one if it is the south edge. */
+        int[] edges = new int[(tilesX - 1) * tilesY + tilesX * (tilesY - 1)];
+        int count = 0;
+        for (int t = 0; t < tiles; t++) {
+            if (t % tilesX != tilesX - 1) {
+                edges[count++] = t << 1;
+            }
+            if (t < tiles - tilesX) {
+                edges[count++] = (t << 1) | 1;
+            }
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = edges[i];
+            edges[i] = edges[j];
+            edges[j] = tmp;
+        }
+        int[] parent = new int[tiles];
+        Arrays.fill(parent, -1);
+        for (int i = 0; i < count; i++) {
+            int t = edges[i] >>> 1;
+            boolean south = (edges[i] & 1) != 0;
+            int a = KruskalGenerator.find(parent, t);
+            int b = KruskalGenerator.find(parent, south ? t + tilesX : t + 1);
+            if (a == b) {
+                continue;
+            }
+            if (parent[a] > parent[b]) {
+                int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            parent[a] += parent[b];
+            parent[b] = a;
+            int x0 = (t % tilesX) * tileSize;
+            int y0 = (t / tilesX) * tileSize;
+            if (south) {
+                int width = Math.min(tileSize, grid.getCols() - x0);
+                grid.openSouth(x0 + random.nextInt(width), y0 + tileSize - 1);
+            } else {
+                int height = Math.min(tileSize, grid.getRows() - y0);
+                grid.openEast(x0 + tileSize - 1, y0 + random.nextInt(height));
+            }
+        }
+    }
+
+    /**
+     * Performs an action for each index of a range, dividing the range among
+     * the threads of the pool.
+     */
+    @SuppressWarnings("serial")
+    private static final class ForEach extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        ForEach(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    action.accept(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForEach(from, middle, action), new ForEach(middle, to, action));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates a perfect maze using Wilson's algorithm, which picks uniformly
+ * among all the possible mazes of the given size. Starting with one random cell
+ * in the maze, a random walk is made from each remaining cell until it reaches
+ * the maze; the walk, with its loops erased, is then carved into the maze.
+ * Loops are erased by remembering only the last direction taken out of each
+ * cell.
+ * <p>
+ * Mazes have no bias of any kind. The expected time is proportional to the
+ * cover time of a random walk on the grid, about O(n log&sup2; n) for n cells,
+ * with the first walks being by far the longest; memory is one byte and one bit
+ * per cell. </p>
+ */
+public class WilsonGenerator implements MazeGenerator {
+
+    private final SplittableRandom random;
+
+    private long[] inMaze;
+    private byte[] exit;        // ordinal of the last direction walked out of each cell
+
+    /**
+     * Constructor.
+     *
+     * @param random	source of the random choices made while carving
+     */
+    public WilsonGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public void generate(Grid grid) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int cells = Grids.cellCount(grid);
+        long[] inMaze = this.inMaze = BitSets.reuse(this.inMaze, cells);
+        if (this.exit == null || this.exit.length < cells) {
+            this.exit = new byte[cells];
+        }
+        byte[] exit = this.exit;
+        BitSets.set(inMaze, random.nextInt(cells));
+        for (int start = 0; start < cells; start++) {
+            if (BitSets.get(inMaze, start)) {
+                continue;
+            }
+            int x = start % cols;
+            int y = start / cols;
+            int cell = start;
+            while (!BitSets.get(inMaze, cell)) {
+                Direction dir;
+                do {
+                    dir = Direction.ALL[random.nextInt(4)];
+                } while (x + dir.dx < 0 || x + dir.dx >= cols
+                        || y + dir.dy < 0 || y + dir.dy >= rows);
+                exit[cell] = (byte) dir.ordinal();
+                x += dir.dx;
+                y += dir.dy;
+                cell = y * cols + x;
+            }
+            x = start % cols;
+            y = start / cols;
+            cell = start;
+            while (!BitSets.get(inMaze, cell)) {
+                Direction dir = Direction.ALL[exit[cell]];
+                grid.carve(x, y, dir);
+                BitSets.set(inMaze, cell);
+                x += dir.dx;
+                y += dir.dy;
+                cell = y * cols + x;
+            }
+        }
+    }
+}
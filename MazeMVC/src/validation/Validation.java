@@ -5,14 +5,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DecimalFormatSymbols;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,7 +32,6 @@ import javax.xml.parsers.FactoryConfigurationError;
 import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
@@ -275,6 +276,29 @@ private static final int ISBN10 = 10;
  */
 private static final int ISBN13 = 13;
 
+/**
+ * Characters, other than letters and digits, permitted in the local-part of an
+ * email address.
+ */
+private static final String EMAIL_LOCAL_PERMITTED = "#-_~$&'()*+,;=:.";
+
+/**
+ * Finds a dot at the start or end of a part of an email address, or two dots
+ * together. Compiled once, as a {@code Pattern} may be shared among threads.
+ */
+private static final Pattern EMAIL_MISPLACED_DOT = Pattern.compile(
+		"^\\" + CHAR_DOT + "|\\" + CHAR_DOT + "\\" + CHAR_DOT + "|\\" + CHAR_DOT + "$");
+
+/**
+ * Pairs of characters outside of which the text of an email address is a
+ * comment.
+ */
+private static final char[][] EMAIL_MARKERS =
+		{
+			{ CHAR_ANGLE_OPEN, CHAR_ANGLE_CLOSE },
+			{ CHAR_BRACKET_OPEN, CHAR_BRACKET_CLOSE }
+		};
+
 /**
  * Longest permissable length of an Internet domain.
  */
@@ -445,9 +469,30 @@ private static final String XTRA_SSN_OR_ISBN_SYMBOLS = STR_DASH + STR_SPACE;
 
 
 /**
- * Internet document defining ISBN ranges.
+ * Name of the system property that may give the file of the ISBN range message
+ * (as exported from
+ * <a href="https://www.isbn-international.org">www.isbn-international.org</a>).
+ */
+public static final String ISBN_RANGES_PROPERTY = "validation.isbn.ranges";
+
+/**
+ * Name of the resource, beside this class, holding the ISBN range message used
+ * if no file is given by the system property. It is not among the sources, but
+ * is fetched from the agency by {@code ant isbn-ranges}.
+ */
+private static final String ISBN_RANGES_RESOURCE = "RangeMessage.xml";
+
+/**
+ * ISBN ranges, compiled from the range message on first use. The compiled
+ * ranges are never changed, only replaced as a whole, so any number of threads
+ * may read them without locking.
  */
-private static Document rangeMessageDocument = null;
+private static volatile IsbnRanges isbnRanges = null;
+
+/**
+ * Lock held while the ISBN ranges are first loaded, or replaced.
+ */
+private static final Object ISBN_RANGES_LOCK = new Object();
 /**
  * Add the country codes to the NANP set.
  */
@@ -867,6 +912,15 @@ public static ValidResult<Double> validateDouble(CharSequence input, double mini
 public static ValidResult<String> validateEmail(CharSequence input) throws
 		ValidationException
 {
+	/* Most addresses need no editing at all, and are checked as they are. */
+	String plain = nonNull(input) ? validatePlainEmail(input) : null;
+	if( nonNull(plain) )
+	{
+		ValidResult<String> result = new ValidResult<>();
+		result.machine = result.common = result.particular = plain;
+		return result;
+	}
+
 	/* Make sure this something to check. */
 	Assembler bb = Assembler.ensureContent(input, "email address", WS_LEAVE);
 
@@ -912,13 +966,15 @@ public static ValidResult<String> validateEmail(CharSequence input) throws
 	   will be converted back later. */
 
 	char escapesource = PRIVATE_USE_TERTIARY;
-	Map<Character, String> replacementMap = new HashMap<>();
+	/* Made only if there is something to replace, as there seldom is. */
+	Map<Character, String> replacementMap = null;
 	loop:
 	for( i = 0; i != bb.length(); ++i )
 		/* Simple escape of one character. Make the escape character the
 		   escapesource replacement, and delete the following character. */
 		if( bb.charAt(i) == CHAR_ESCAPE && i + 1 < bb.length() )
 		{
+			if( isNull(replacementMap) ) replacementMap = new HashMap<>();
 			replacementMap.put(escapesource, Character.toString(bb.charAt(i + 1)));
 			bb.setCharAt(i, escapesource--);
 			bb.deleteCharAt(i + 1);
@@ -940,6 +996,7 @@ public static ValidResult<String> validateEmail(CharSequence input) throws
 					   character the escapesource replacement, save the string
 					   (without the quotes), then delete from the just after the
 					   starting quote to the closing quote. */
+					if( isNull(replacementMap) ) replacementMap = new HashMap<>();
 					replacementMap.put(escapesource,
 											bb.subSequence(i, j + 1).toString());
 					bb.setCharAt(i, escapesource--);
@@ -953,12 +1010,7 @@ public static ValidResult<String> validateEmail(CharSequence input) throws
 	   those markers are comments,and should be removed and ignored. */
 	int first;
 	int last;
-	char[][] markers = new char[][]
-			{
-				{ CHAR_ANGLE_OPEN, CHAR_ANGLE_CLOSE},
-				{ CHAR_BRACKET_OPEN, CHAR_BRACKET_CLOSE }
-			};
-	for( char[] marker : markers )
+	for( char[] marker : EMAIL_MARKERS )
 	{
 		first = bb.indexOf(marker[0]);
 		last = bb.indexOf(marker[1]);
@@ -1015,54 +1067,62 @@ public static ValidResult<String> validateEmail(CharSequence input) throws
 	if( parts[DOMAIN].isEmpty() )
 		throw new ValidationException("No domain for address present");
 
-	/* Check permitted characters in the local-part. */
+	/* Check permitted characters in the local-part. The characters not
+	   permitted are collected only once there is one. */
 	{
-		String permitted = "#-_~$&'()*+,;=:.";
-		StringBuilder notPermitted = new StringBuilder();
+		StringBuilder notPermitted = null;
 		for( i = 0; i != parts[LOCAL].length(); ++i )
 		{
 			char c = parts[LOCAL].charAt(i);
 			if( !(Character.isAlphabetic(c) || Character.isDigit(c) ||
-					permitted.indexOf(c) >= 0 ||
+					EMAIL_LOCAL_PERMITTED.indexOf(c) >= 0 ||
 					c >= PRIVATE_USE_START && c <= PRIVATE_USE_END) &&
-					notPermitted.toString().indexOf(c) < 0 )
+					(isNull(notPermitted) ||
+							notPermitted.toString().indexOf(c) < 0) )
+			{
+				if( isNull(notPermitted) ) notPermitted = new StringBuilder();
 				notPermitted.append(c);
+			}
 		}
-		if( notPermitted.length() != 0 )
+		if( nonNull(notPermitted) )
 			throw new ValidationException("Character(s) \"" +
 					notPermitted.toString() + "\" not permitted in local-part");
 	}
 
 	/* Replace the escaped sequences with their actual values. */
-	replacementMap.entrySet().stream().forEach((entry) ->
-	{
-		String marker = Character.toString(entry.getKey());
-		for( int part = LOCAL; part <= DOMAIN; ++part )
-			parts[part].replace(marker, entry.getValue());
-	});
+	if( nonNull(replacementMap) )
+		replacementMap.entrySet().stream().forEach((entry) ->
+		{
+			String marker = Character.toString(entry.getKey());
+			for( int part = LOCAL; part <= DOMAIN; ++part )
+				parts[part].replace(marker, entry.getValue());
+		});
 
 	/* Check the domain part of the email address. The domain part must match
 	   Internet rules for domain names. */
 	{
-		StringBuilder notPermitted = new StringBuilder();
+		StringBuilder notPermitted = null;
 		int dlength = parts[DOMAIN].length();
 		for( i = 0; i != dlength; ++i )
 		{
 			char c = parts[DOMAIN].charAt(i);
 			if( !(Character.isAlphabetic(c) || Character.isDigit(c) ||
 				(i != 0 && i != dlength) && (c == CHAR_DASH || c == CHAR_DOT)) &&
-					notPermitted.toString().indexOf(c) < 0 )
+					(isNull(notPermitted) ||
+							notPermitted.toString().indexOf(c) < 0) )
+			{
+				if( isNull(notPermitted) ) notPermitted = new StringBuilder();
 				notPermitted.append(c);
+			}
 		}
-		if( notPermitted.length() != 0 )
+		if( nonNull(notPermitted) )
 			throw new ValidationException("Character(s) \"" +
 					notPermitted.toString() + "\" not permitted in domain name");
 	}
 
 	/* Check the position of dots. */
 	{
-		Matcher match2 = Pattern.compile("^\\" + STR_DOT + "|" + "\\" +
-				STR_DOT + "\\" + STR_DOT + "|\\" + STR_DOT + "$").matcher("");
+		Matcher match2 = EMAIL_MISPLACED_DOT.matcher("");
 		for( int part = LOCAL; part <= DOMAIN; ++part )
 		{
 			match2.reset(parts[part]);
@@ -1097,15 +1157,70 @@ public static ValidResult<String> validateEmail(CharSequence input) throws
 	return result;
 }
 
+/**
+ * Check an email address that needs none of the editing done by
+ * {@code validateEmail}: one without escapes, quotes, comments, white space or
+ * hexadecimal replacements, and with no character that would be rejected. Such
+ * an address is valid exactly when {@code validateEmail} would find it so, and
+ * is its own minimal form, so it is checked in one pass without copying.
+ * Anything else, valid or not, is left for {@code validateEmail} to edit, or to
+ * explain why it is rejected, and is no quicker for this method.
+ *
+ * @param input		{@code CharSequence} that may contain an email address
+ * @return			the email address, or null if it must be validated in full
+ */
+private static String validatePlainEmail(CharSequence input)
+{
+	int length = input.length();
+	if( length > LENGTH_EMAIL_TOTAL || length == 0 ||
+			input.charAt(0) == CHAR_SINGLE_QUOTE )
+		return null;
+	int at = -1;
+	boolean domainDot = false;
+	for( int i = 0; i != length; ++i )
+	{
+		char c = input.charAt(i);
+		if( c == CHAR_AT )
+		{
+			if( at >= 0 ) return null;
+			at = i;
+		} else if( c == CHAR_DOT )
+		{
+			/* Not first or last in either part, nor doubled. */
+			if( i == 0 || i == at + 1 || i + 1 == length ||
+					input.charAt(i + 1) == CHAR_DOT ||
+					input.charAt(i + 1) == CHAR_AT )
+				return null;
+			domainDot |= at >= 0;
+		} else if( !(Character.isAlphabetic(c) || Character.isDigit(c)) )
+		{
+			/* Local-part punctuation, apart from comments, or a dash within
+			   the domain. */
+			if( at < 0 ? c == CHAR_PAREN_OPEN || c == CHAR_PAREN_CLOSE ||
+					EMAIL_LOCAL_PERMITTED.indexOf(c) < 0 :
+					c != CHAR_DASH || i == at + 1 )
+				return null;
+		}
+	}
+	if( at <= 0 || at + 1 == length || !domainDot ||
+			at > LENGTH_EMAIL_LOCAL_PART || length - at - 1 > LENGTH_EMAIL_DOMAIN )
+		return null;
+	return input.toString();
+}
+
 
 /**
  * Given an input {@code CharSequence}, validates that it represents a correct ISBN.
  * If not, a {@code ValidationException} is thrown.
  * <p>
- * This validation requires an active Internet connection so that the current ISBN
- * rules can be downloaded from the web site
- * <a href="https://www.isbn-international.org">www.isbn-international.org</a>. If
- * this validation is not used, then the connection is not made.
+ * This validation requires the current ISBN range message of
+ * <a href="https://www.isbn-international.org">www.isbn-international.org</a>,
+ * read from the file given by the system property {@code validation.isbn.ranges}
+ * or, if that is not set, from the resource {@code RangeMessage.xml} beside this
+ * class, as fetched by {@code ant isbn-ranges}. If there is neither, no ISBN is
+ * accepted. The message is read and compiled once, when first needed, however
+ * many threads are validating; each ISBN is then found among its ranges by a
+ * binary search. A new message may be read with {@code reloadISBNRanges}.
  * <p>
  * In the (@code ValidResult}, the machine contains a {@code String} with just the
  * digits and check character from the input. The common value contains the same
@@ -1126,33 +1241,9 @@ public static ValidResult<String> validateEmail(CharSequence input) throws
 public static ValidResult<String> validateISBN(CharSequence input, int kind)
 													throws ValidationException
 {
-	if( rangeMessageDocument == null )
-	{
-		InputStream stream;
-		try
-		{
-			HttpURLConnection.setFollowRedirects(true);
-			HttpURLConnection connection =
-					(HttpURLConnection) new URL(
-					"https://www.isbn-international.org/export_rangemessage.xml").
-							openConnection();
-			stream = connection.getInputStream();
-		} catch( IOException ex )
-		{
-			throw new ValidationException("Internet document not available", ex);
-		}
-		try( InputStream internetText = stream )
-		{
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
-			rangeMessageDocument = builder.parse(internetText);
-			rangeMessageDocument.getDocumentElement().normalize();
-		} catch( IOException | FactoryConfigurationError |
-				SAXException | ParserConfigurationException ex )
-		{
-			throw new ValidationException("Internet document not parsed", ex);
-		}
-	}
+	/* The same ranges are used throughout, even if they are reloaded
+	   meanwhile. */
+	IsbnRanges ranges = getIsbnRanges();
 
 	/* Check the character sequence input. */
 	Assembler bb = Assembler.ensureContent(input, "ISBN", WS_REMOVE);
@@ -1173,107 +1264,16 @@ public static ValidResult<String> validateISBN(CharSequence input, int kind)
 	if( kind == 0 ) kind = ISBNlength + 1;
 	if( ISBNlength == ISBN10 - 1 ) isbn = "978" + isbn;
 
-	/* Thee record where the punctuation is to be inserted. */
-	int index = 0;
-	int leader_length = 0;
-	int chars = 0;
-
-	@SuppressWarnings("null")
-	NodeList listOfRegistrationGroups = rangeMessageDocument.getElementsByTagName(
-														"RegistrationGroups");
-	int number_of_groups = listOfRegistrationGroups.getLength();	// should be 1
-	int i = 0;
-scan:
-	for( ; i != number_of_groups; ++i )
-	{
-		Node registrationNode = listOfRegistrationGroups.item(i);
-		if( registrationNode.getNodeType() == Node.ELEMENT_NODE )
-		{
-			Element registrationElement = (Element) registrationNode;
-			NodeList listOfGroups = registrationElement.
-													getElementsByTagName("Group");
-			for( int j = 0; j != listOfGroups.getLength(); ++j )
-			{
-				Node groupNode = listOfGroups.item(j);
-				if( groupNode.getNodeType() == Node.ELEMENT_NODE )
-				{
-					Element groupElement = (Element) groupNode;
-
-					/* Get the prefix field. */
-					Element nodeElement = (Element) groupElement.
-										getElementsByTagName("Prefix").item(0);
-					/* Get the child nodes and extract the text from the first
-					   child node. */
-					String prefix_language = nodeElement.getChildNodes().
-													item(0).getNodeValue().trim();
-					index = prefix_language.indexOf('-');
-					String leader = prefix_language.substring(index + 1);
-					leader_length = leader.length();
-
-					if( !prefix_language.substring(0, index).
-							equals(isbn.substring(0, index)) ||
-							!leader.equals(isbn.substring(index, index +
-									leader_length)) ) continue;
-
-					/* Get the Rules field. */
-					NodeList listOfRules =
-							groupElement.getElementsByTagName("Rules");
-					Element rulesNodeElement = (Element) listOfRules.item(0);
-
-					NodeList listOfRule =
-							rulesNodeElement.getElementsByTagName("Rule");
-					//int totalRules = listOfRule.getLength();
-					//System.out.println("  Total no of Rules : " + totalRules);
-					for( int k = 0; k != listOfRule.getLength(); ++k )
-					{
-						Node ruleNode = listOfRule.item(k);
-
-						if( ruleNode.getNodeType() == Node.ELEMENT_NODE )
-						{
-							Element ruleElement = (Element) ruleNode;
-
-							/* Get the Length field. */
-							Element lengthElement = (Element) ruleElement.
-										getElementsByTagName("Length").item(0);
-							/* Get the child nodes and extract the text from the
-							   first child node. */
-							String length = lengthElement.getChildNodes().
-													item(0).getNodeValue().trim();
-							chars = Integer.parseInt(length);
-
-							if( chars != 0 )
-							{
-								/* Get the Range field. */
-								Element rangeElement = (Element) ruleElement.
-										getElementsByTagName("Range").item(0);
-								/* Get the child nodes and extract the text from the
-								   first child node. */
-								String range = rangeElement.getChildNodes().
-													item(0).getNodeValue().trim();
-								int index1 = range.indexOf('-');
-
-								String lower_limit = range.substring(0, chars);
-								String upper_limit = range.substring(
-													index1 + 1, index1 + 1 + chars);
-								String compare_string = isbn.substring(
-													index + leader_length,
-													index + leader_length + chars);
-
-								if( compare_string.compareTo(lower_limit) >= 0 &&
-										compare_string.compareTo(upper_limit) <= 0 )
-									break scan;
-							}
-						}
-					}
-				}
-			}
-		}
-	}
-
-	/* If the search is exhausted, the ISBN is not valid. */
-	if( i == number_of_groups )
+	/* Find the rule of the range message covering the ISBN, which gives where
+	   the punctuation is to be inserted. If there is none, the ISBN is not
+	   valid. */
+	int rule = ranges.find(isbn);
+	if( rule < 0 )
 		throw new ValidationException("ISBN \"" + input +
 												"\" contains invalid sequence");
+	int index = ranges.prefixLength[rule];
+	int leader_length = ranges.groupLength[rule];
+	int chars = ranges.registrantLength[rule];
 
 	/* Function for computing ISBN10 sum check. */
 	final Function<Assembler, Character> ISBN10_check =
@@ -1346,6 +1346,89 @@ scan:
 	result.particular = edit[1].isEmpty() ? result.machine : result.common;
 	return result;
 }
+
+/**
+ * Read a new ISBN range message, and use it for all later validation of ISBNs.
+ * Validation continues with the current ranges, without waiting, while the new
+ * message is read and compiled; if it cannot be, the current ranges are kept.
+ *
+ * @param file		file of the range message, or null to read the message again
+ *					from the file given by the system property
+ *					{@code validation.isbn.ranges} or else from the resource
+ * @throws ValidationException if the range message cannot be read or parsed
+ */
+public static void reloadISBNRanges(Path file) throws ValidationException
+{
+	IsbnRanges ranges = loadIsbnRanges(file);
+	/* Wait for any first load to finish, so that it does not replace these
+	   ranges with older ones. */
+	synchronized( ISBN_RANGES_LOCK )
+	{
+		isbnRanges = ranges;
+	}
+}
+
+/**
+ * The ISBN ranges, read and compiled by the first thread that needs them; any
+ * other thread needing them meanwhile waits for them.
+ *
+ * @return			the compiled ranges
+ * @throws ValidationException if the range message cannot be read or parsed
+ */
+private static IsbnRanges getIsbnRanges() throws ValidationException
+{
+	IsbnRanges ranges = isbnRanges;
+	if( ranges == null )
+	{
+		synchronized( ISBN_RANGES_LOCK )
+		{
+			ranges = isbnRanges;
+			if( ranges == null ) isbnRanges = ranges = loadIsbnRanges(null);
+		}
+	}
+	return ranges;
+}
+
+/**
+ * Read an ISBN range message and compile it for lookup.
+ *
+ * @param path		file of the range message, or null for the file given by the
+ *					system property {@code validation.isbn.ranges} or else the
+ *					resource beside this class
+ * @return			the compiled ranges
+ * @throws ValidationException if the range message cannot be read or parsed
+ */
+private static IsbnRanges loadIsbnRanges(Path path) throws ValidationException
+{
+	String file = nonNull(path) ? path.toString() :
+								System.getProperty(ISBN_RANGES_PROPERTY);
+	InputStream stream;
+	try
+	{
+		stream = nonNull(file) ? Files.newInputStream(Paths.get(file)) :
+				Validation.class.getResourceAsStream(ISBN_RANGES_RESOURCE);
+	} catch( IOException | RuntimeException ex )
+	{
+		throw new ValidationException("ISBN range message \"" + file +
+														"\" not available", ex);
+	}
+	if( isNull(stream) )
+		throw new ValidationException("ISBN range file not configured (" +
+												ISBN_RANGES_PROPERTY + ")");
+	try( InputStream text = stream )
+	{
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		DocumentBuilder builder = factory.newDocumentBuilder();
+		Document document = builder.parse(text);
+		document.getDocumentElement().normalize();
+		return new IsbnRanges(document);
+	} catch( IOException | FactoryConfigurationError | SAXException |
+			ParserConfigurationException | RuntimeException ex )
+	{
+		throw new ValidationException("ISBN range message not parsed", ex);
+	}
+}
+
 /**
  * Given an input {@code CharSequence}, validates that it represents an integer
  * value. If not, a {@code ValidationException} is thrown.
@@ -1824,6 +1907,149 @@ public static int verifyInteger(int value, int minimum, int maximum) throws
 	return value;
 }
 
+/**
+ * Private class holding the ranges of an ISBN range message, compiled for
+ * lookup. Each rule of a registration group that assigns registrants (that is,
+ * has a non-zero length) covers a run of ISBN13 numbers without their check
+ * digit, taken as 12-digit values; the rules are kept in ascending order of
+ * their lowest values, so the rule covering an ISBN is found by a binary search.
+ * The rules of a range message do not overlap.
+ */
+private static final class IsbnRanges
+{
+/**
+ * Number of digits of an ISBN13 without its check digit.
+ */
+private static final int DIGITS = ISBN13 - 1;
+
+/**
+ * Lowest value covered by each rule, in ascending order.
+ */
+private final long[] low;
+
+/**
+ * Highest value covered by each rule.
+ */
+private final long[] high;
+
+/**
+ * Number of digits of the prefix ("978" or "979") of each rule.
+ */
+final byte[] prefixLength;
+
+/**
+ * Number of digits of the registration group of each rule.
+ */
+final byte[] groupLength;
+
+/**
+ * Number of digits of the registrant of each rule.
+ */
+final byte[] registrantLength;
+
+/**
+ * Constructor: compile the rules of the registration groups of a range
+ * message.
+ *
+ * @param document	the parsed range message
+ * @throws ValidationException if the message holds no rules
+ */
+IsbnRanges(Document document) throws ValidationException
+{
+	List<long[]> rules = new ArrayList<>();
+	NodeList groups = document.getElementsByTagName("RegistrationGroups");
+	for( int i = 0; i != groups.getLength(); ++i )
+	{
+		NodeList listOfGroups =
+				((Element) groups.item(i)).getElementsByTagName("Group");
+		for( int j = 0; j != listOfGroups.getLength(); ++j )
+		{
+			Element group = (Element) listOfGroups.item(j);
+			/* The prefix is written as "978-0"; the digits of both parts
+			   together are those of the group within an ISBN13. */
+			String prefix = text(group, "Prefix");
+			int dash = prefix.indexOf(CHAR_DASH);
+			int groupDigits = prefix.length() - dash - 1;
+			long first = Long.parseLong(prefix.substring(0, dash) +
+					prefix.substring(dash + 1));
+			NodeList listOfRule = group.getElementsByTagName("Rule");
+			for( int k = 0; k != listOfRule.getLength(); ++k )
+			{
+				Element rule = (Element) listOfRule.item(k);
+				int chars = Integer.parseInt(text(rule, "Length"));
+				/* A rule with no length covers numbers not yet assigned. */
+				int rest = DIGITS - (prefix.length() - 1) - chars;
+				if( chars == 0 || rest < 0 ) continue;
+				String range = text(rule, "Range");
+				int index = range.indexOf(CHAR_DASH);
+				long scale = (long) pow(BASE_DECIMAL, rest);
+				long base = first * (long) pow(BASE_DECIMAL, chars + rest);
+				rules.add(new long[]
+						{
+							base + Long.parseLong(range.substring(0, chars)) * scale,
+							base + (Long.parseLong(range.substring(index + 1,
+									index + 1 + chars)) + 1) * scale - 1,
+							dash, groupDigits, chars
+						});
+			}
+		}
+	}
+	if( rules.isEmpty() )
+		throw new ValidationException("ISBN range message holds no rules");
+
+	rules.sort((a, b) -> Long.compare(a[0], b[0]));
+	int count = rules.size();
+	low = new long[count];
+	high = new long[count];
+	prefixLength = new byte[count];
+	groupLength = new byte[count];
+	registrantLength = new byte[count];
+	for( int i = 0; i != count; ++i )
+	{
+		long[] rule = rules.get(i);
+		low[i] = rule[0];
+		high[i] = rule[1];
+		prefixLength[i] = (byte) rule[2];
+		groupLength[i] = (byte) rule[3];
+		registrantLength[i] = (byte) rule[4];
+	}
+}
+
+/**
+ * The trimmed text of the first descendant of an element with the given tag.
+ *
+ * @param element	the element
+ * @param tag		the tag of the descendant
+ * @return			its text
+ */
+private static String text(Element element, String tag)
+{
+	return element.getElementsByTagName(tag).item(0).getTextContent().trim();
+}
+
+/**
+ * Find the rule covering an ISBN13 without its check digit.
+ *
+ * @param isbn		the twelve digits of the ISBN
+ * @return			the index of the rule, or -1 if no rule covers the ISBN
+ */
+int find(CharSequence isbn)
+{
+	long value = 0;
+	for( int i = 0; i != DIGITS; ++i )
+	{
+		char c = isbn.charAt(i);
+		if( c < '0' || c > '9' ) return -1;
+		value = value * BASE_DECIMAL + (c - '0');
+	}
+	/* The last rule starting at or below the value is the only one that may
+	   cover it. */
+	int i = Arrays.binarySearch(low, value);
+	if( i < 0 ) i = -i - 2;
+	return i >= 0 && value <= high[i] ? i : -1;
+}
+}
+
 /**
  * Private class to replace {@code String} and {@code StringBuilder}, with
  * additional needed methods.
@@ -0,0 +1,369 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseWheelEvent;
+import java.util.BitSet;
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import model.Direction;
+import model.Grid;
+import model.SolutionPath;
+
+/**
+ * Paints a maze directly from its grid, with its solution if that is shown.
+ * Only the cells within the clip are painted, so the time to paint depends on
+ * the size of the visible part of the maze, not of the whole; the panel is
+ * meant to be placed in a {@code JScrollPane}.
+ * <p>
+ * Each cell is painted as a square with the walls on its north and west sides;
+ * the walls on the east and south of the maze are painted with the last column
+ * and row. The size of the squares can be changed, to zoom in or out, with the
+ * mouse wheel while the control key is held down. </p>
+ * <p>
+ * The solution is a layer over the walls. The openings along it are marked
+ * once for each maze, two bits per cell, so that it too is painted only within
+ * the clip. Showing or hiding it repaints only the straight runs of cells it
+ * passes through, so the time taken depends on the length of the solution
+ * rather than the size of the maze. </p>
+ */
+@SuppressWarnings("serial")
+public class MazePanel extends JComponent implements Scrollable {
+
+    /**
+     * The smallest size of a cell, in pixels.
+     */
+    public static final int MIN_CELL_SIZE = 2;
+
+    /**
+     * The largest size of a cell, in pixels.
+     */
+    public static final int MAX_CELL_SIZE = 64;
+
+    /**
+     * The size of a cell, in pixels, until it is changed.
+     */
+    private static final int DEFAULT_CELL_SIZE = 28;
+
+    /**
+     * The space around the maze, in pixels.
+     */
+    private static final int MARGIN = 10;
+
+    /**
+     * The most straight runs of the solution repainted one by one when it is
+     * shown or hidden; past this, the visible part of the panel is repainted.
+     */
+    private static final int MAX_RUNS_REPAINTED = 256;
+
+    private static final Color WALL_COLOR = Color.BLACK;
+    private static final Color SOLUTION_COLOR = Color.RED;
+
+    private Grid grid;
+    private SolutionPath solution;
+    private final BitSet eastOpenings = new BitSet();   // cells whose opening east is on the solution
+    private final BitSet southOpenings = new BitSet();  // cells whose opening south is on the solution
+    private boolean solutionShown;
+    private int cellSize = DEFAULT_CELL_SIZE;
+
+    /**
+     * Constructor: an empty panel, until a maze is given.
+     */
+    public MazePanel() {
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        addMouseWheelListener(this::mouseWheelMoved);
+    }
+
+    /**
+     * Show a new maze, without its solution.
+     *
+     * @param grid	the cells and passages of the maze
+     * @param solution	the solution of the maze, for when it is shown
+     */
+    public void setMaze(Grid grid, SolutionPath solution) {
+        this.grid = grid;
+        this.solution = solution;
+        this.solutionShown = false;
+        markSolution();
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Show or hide the solution of the maze.
+     *
+     * @param shown	whether the solution is shown
+     */
+    public void setSolutionShown(boolean shown) {
+        if (shown != solutionShown) {
+            solutionShown = shown;
+            repaintSolution();
+        }
+    }
+
+    /**
+     * Whether the solution of the maze is shown.
+     *
+     * @return	true if the solution is shown
+     */
+    public boolean isSolutionShown() {
+        return solutionShown;
+    }
+
+    /**
+     * The size of each cell, in pixels.
+     *
+     * @return	the size of a cell
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Change the size of each cell, zooming the maze in or out. The size is
+     * kept between {@link #MIN_CELL_SIZE} and {@link #MAX_CELL_SIZE}.
+     *
+     * @param size	the new size of a cell, in pixels
+     */
+    public void setCellSize(int size) {
+        size = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, size));
+        if (size != cellSize) {
+            cellSize = size;
+            revalidate();
+            repaint();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (grid == null) {
+            return new Dimension(2 * MARGIN, 2 * MARGIN);
+        }
+        return new Dimension(
+                (int) Math.min(Integer.MAX_VALUE, (long) grid.getCols() * cellSize + 2 * MARGIN + 1),
+                (int) Math.min(Integer.MAX_VALUE, (long) grid.getRows() * cellSize + 2 * MARGIN + 1));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        if (grid == null) {
+            return;
+        }
+        /* The cells whose squares, with their walls, meet the clip. */
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        int x0 = Math.max(0, (clip.x - MARGIN) / cellSize - 1);
+        int y0 = Math.max(0, (clip.y - MARGIN) / cellSize - 1);
+        int x1 = Math.min(cols - 1, (clip.x + clip.width - MARGIN) / cellSize);
+        int y1 = Math.min(rows - 1, (clip.y + clip.height - MARGIN) / cellSize);
+        paintWalls(g, x0, y0, x1, y1);
+        if (solutionShown && solution != null) {
+            paintSolution(g, x0, y0, x1, y1);
+        }
+    }
+
+    /**
+     * Paint the walls of the cells from (x0, y0) to (x1, y1) inclusive. Walls
+     * running along a row without a break are painted as one.
+     */
+    private void paintWalls(Graphics g, int x0, int y0, int x1, int y1) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        g.setColor(WALL_COLOR);
+        for (int y = y0; y <= y1 + 1; y++) {
+            // the walls to the north of row y, or the south wall of the maze;
+            // the entrance is above the first cell and the exit below the last
+            int top = MARGIN + y * cellSize;
+            int run = -1;           // the first cell of the wall being painted
+            for (int x = x0; x <= x1 + 1; x++) {
+                boolean wall = x <= x1 && (y == 0 ? x != 0
+                        : y == rows ? x != cols - 1
+                        : !grid.isOpenSouth(x, y - 1));
+                if (wall && run < 0) {
+                    run = x;
+                } else if (!wall && run >= 0) {
+                    g.fillRect(MARGIN + run * cellSize, top, (x - run) * cellSize + 1, 1);
+                    run = -1;
+                }
+            }
+            if (y > y1) {
+                break;
+            }
+            // the walls to the west of each cell of row y
+            for (int x = x0; x <= x1; x++) {
+                if (x == 0 || !grid.isOpenEast(x - 1, y)) {
+                    g.fillRect(MARGIN + x * cellSize, top, 1, cellSize + 1);
+                }
+            }
+            // east wall of the maze
+            if (x1 == cols - 1) {
+                g.fillRect(MARGIN + cols * cellSize, top, 1, cellSize + 1);
+            }
+        }
+    }
+
+    /**
+     * Paint the solution where it passes through the cells from (x0, y0) to
+     * (x1, y1) inclusive: a square in each cell, joined to the next cell, or
+     * out through the entrance or exit. Each join is painted from the cell to
+     * its west or north.
+     */
+    private void paintSolution(Graphics g, int x0, int y0, int x1, int y1) {
+        final int cols = grid.getCols();
+        final int rows = grid.getRows();
+        final int inset = cellSize / 4 + 1;
+        final int width = Math.max(1, cellSize - 2 * inset + 1);
+        g.setColor(SOLUTION_COLOR);
+        for (int y = y0; y <= y1; y++) {
+            int top = MARGIN + y * cellSize + inset;
+            for (int x = x0; x <= x1; x++) {
+                int cell = y * cols + x;
+                boolean east = eastOpenings.get(cell);
+                boolean south = southOpenings.get(cell);
+                // every cell on the solution has an opening on it
+                if (!east && !south && (x == 0 || !eastOpenings.get(cell - 1))
+                        && (y == 0 || !southOpenings.get(cell - cols))) {
+                    continue;
+                }
+                int left = MARGIN + x * cellSize + inset;
+                g.fillRect(left, top, width, width);
+                if (cell == 0) {
+                    g.fillRect(left, top - inset, width, inset);
+                }
+                if (east) {
+                    g.fillRect(left + width, top, 2 * inset - 1, width);
+                }
+                if (south) {
+                    g.fillRect(left, top + width, width, y == rows - 1 ? inset : 2 * inset - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark the openings along the solution, including the exit below the last
+     * cell.
+     */
+    private void markSolution() {
+        eastOpenings.clear();
+        southOpenings.clear();
+        if (solution == null) {
+            return;
+        }
+        final int cols = grid.getCols();
+        for (int i = 0; i < solution.size(); i++) {
+            int cell = solution.getCell(i);
+            switch (solution.getDirection(i)) {
+                case N:
+                    southOpenings.set(cell - cols);
+                    break;
+                case S:
+                    southOpenings.set(cell);
+                    break;
+                case E:
+                    eastOpenings.set(cell);
+                    break;
+                case W:
+                    eastOpenings.set(cell - 1);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Repaint the cells the solution passes through, and no others, one
+     * straight run at a time. If the panel is not showing, or too many runs
+     * can be seen, the visible part of the panel is repainted instead.
+     */
+    private void repaintSolution() {
+        if (solution == null) {
+            return;
+        }
+        Rectangle visible = getVisibleRect();
+        if (!isShowing() || visible.isEmpty()) {
+            repaint();
+            return;
+        }
+        Rectangle[] runs = new Rectangle[MAX_RUNS_REPAINTED];
+        int count = 0;
+        int start = 0;
+        for (int i = 0; i < solution.size(); i++) {
+            Direction dir = solution.getDirection(i);
+            if (i + 1 < solution.size() && solution.getDirection(i + 1) == dir) {
+                continue;
+            }
+            // the run from the cell of step start to that of step i + 1
+            int end = Math.min(i + 1, solution.size() - 1);
+            int xa = Math.min(solution.getX(start), solution.getX(end));
+            int xb = Math.max(solution.getX(start), solution.getX(end));
+            int ya = Math.min(solution.getY(start), solution.getY(end));
+            int yb = Math.max(solution.getY(start), solution.getY(end));
+            Rectangle run = new Rectangle(MARGIN + xa * cellSize, MARGIN + ya * cellSize,
+                    (xb - xa + 1) * cellSize + 1, (yb - ya + 1) * cellSize + 1)
+                    .intersection(visible);
+            if (!run.isEmpty()) {
+                if (count == runs.length) {
+                    repaint(visible);
+                    return;
+                }
+                runs[count++] = run;
+            }
+            start = i + 1;
+        }
+        for (int i = 0; i < count; i++) {
+            paintImmediately(runs[i]);
+        }
+    }
+
+    /**
+     * Zoom in or out as the mouse wheel is moved, while the control key is
+     * held down; otherwise pass the event on, to scroll.
+     */
+    private void mouseWheelMoved(MouseWheelEvent e) {
+        if ((e.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) == 0) {
+            getParent().dispatchEvent(SwingUtilities.convertMouseEvent(this, e, getParent()));
+            return;
+        }
+        int size = cellSize;
+        setCellSize(e.getWheelRotation() < 0 ? size + Math.max(1, size / 4)
+                : size - Math.max(1, size / 5));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visible, int orientation, int direction) {
+        return cellSize;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visible, int orientation, int direction) {
+        return orientation == SwingConstants.HORIZONTAL ? visible.width - cellSize
+                : visible.height - cellSize;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -10,6 +10,7 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.SwingUtilities;
 
 /**
@@ -98,7 +99,10 @@ public class MazeView extends JFrame implements Runnable {
                 SPACING_VERTICAL_AFTER, SPACING_HORIZONTAL_EACH_SIDE);
         /* Allow horizontal spacing adjustment within the GridBagLayout. */
         gc.weightx = NON_ZERO; 
-        add(controller.getMazeTextArea(), gc);
+        /* The maze fills the space left by the input panel. */
+        gc.weighty = NON_ZERO;
+        gc.fill = GridBagConstraints.BOTH;
+        add(new JScrollPane(controller.getMazePanel()), gc);
         inputPanel.add(controller.getColsLabel());	// column
         inputPanel.add(controller.getColsInputField());
         inputPanel.add(controller.getRowsLabel());
@@ -106,7 +110,10 @@ public class MazeView extends JFrame implements Runnable {
         inputPanel.add(controller.getNewMazeButton());
         inputPanel.add(controller.getShowSolutionButton());
         inputPanel.add(controller.getHideSolutionButton());
+        inputPanel.add(controller.getProgressBar());
         gc.gridy = 1;
+        gc.weighty = 0;
+        gc.fill = GridBagConstraints.NONE;
         add(inputPanel, gc);
         this.setMinimumSize(new Dimension(900,950));
         /* The input fields are initially clear. */